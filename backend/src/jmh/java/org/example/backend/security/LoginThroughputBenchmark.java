@@ -0,0 +1,117 @@
+package org.example.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.repository.VetRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Successful logins per second through LoginAuthenticationProvider, with 64 request threads storming a hash pool
+ * sized like passwordHashExecutor. The lookup is stubbed, so the numbers are the BCrypt ceiling of the pipeline;
+ * divide the logins counter by the core count printed at setup for logins per second per core. rejected counts the
+ * 503s a storm of this size produces. direct is one BCrypt check on the calling thread, the per-thread baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginThroughputBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolTaskExecutor hashExecutor;
+    private LoginAuthenticationProvider provider;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("Cores: " + cores);
+
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+
+        UserRepository.LoginPrincipal principal = mock(UserRepository.LoginPrincipal.class);
+        when(principal.getId()).thenReturn(UUID.randomUUID());
+        when(principal.getPassword()).thenReturn(hash);
+        when(principal.getPrincipalType()).thenReturn(JwtUtil.TYPE_USER);
+        when(principal.getRole()).thenReturn("OWNER");
+        when(principal.getActive()).thenReturn(true);
+        UserRepository users = mock(UserRepository.class);
+        when(users.findLoginPrincipals(anyString())).thenReturn(List.of(principal));
+
+        hashExecutor = new ThreadPoolTaskExecutor();
+        hashExecutor.setThreadNamePrefix("password-hash-");
+        hashExecutor.setCorePoolSize(cores);
+        hashExecutor.setMaxPoolSize(cores);
+        hashExecutor.setQueueCapacity(cores * 16);
+        hashExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        hashExecutor.initialize();
+
+        provider = new LoginAuthenticationProvider(users, mock(VetRepository.class), encoder, hashExecutor, new SimpleMeterRegistry(), 10_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hashExecutor.shutdown();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long logins;
+        public long rejected;
+    }
+
+    /* A rejected client backs off briefly instead of spinning, so it does not steal the cores the pool hashes on */
+    @Benchmark
+    @Threads(64)
+    public void login(Outcomes outcomes) throws InterruptedException {
+        try {
+            provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("owner@example.org", PASSWORD));
+            outcomes.logins++;
+        } catch (AuthenticationServiceException busy) {
+            outcomes.rejected++;
+            Thread.sleep(10);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean direct() {
+        return encoder.matches(PASSWORD, hash);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render cost per mail for the three templates sent most. cached is EmailTemplateRenderer as deployed; uncached
+ * re-parses the template on every call, which is what rendering did with spring.thymeleaf.cache off. cancellation
+ * renders the five mails of one clinic cancellation through a dispatch batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailTemplateRenderBenchmark {
+
+    private static final int MAILS_PER_CANCELLATION = 5;
+
+    @Param({"email/appointment_cancelled.html", "email/appointment_confirmed.html", "email/medical_record_uploaded.html"})
+    public String template;
+
+    private EmailTemplateRenderer renderer;
+    private SpringTemplateEngine uncached;
+    private Map<String, Object> model;
+
+    @Setup
+    public void setUp() {
+        renderer = new EmailTemplateRenderer(new SimpleMeterRegistry(), 64);
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(false);
+        uncached = new SpringTemplateEngine();
+        uncached.setTemplateResolver(resolver);
+
+        model = Map.of(
+                "userName", "Ana Popescu",
+                "petName", "Rex",
+                "vetName", "Dr. Ionescu",
+                "clinicName", "PetWell Central",
+                "appointmentDate", "2025-03-14T10:30+02:00",
+                "fileName", "xray-2025-03-14.pdf",
+                "uploaderName", "Dr. Ionescu",
+                "uploadDate", "2025-03-14T11:02+02:00");
+    }
+
+    @Benchmark
+    public String cached() {
+        return renderer.render(template, model);
+    }
+
+    @Benchmark
+    public String uncached() {
+        return uncached.process(template, new Context(Locale.getDefault(), model));
+    }
+
+    /* Per cancellation, not per mail: divide by MAILS_PER_CANCELLATION to compare with cached */
+    @Benchmark
+    public void cancellation(Blackhole blackhole) {
+        EmailTemplateRenderer.Batch batch = renderer.batch();
+        for (int i = 0; i < MAILS_PER_CANCELLATION; i++) {
+            blackhole.consume(batch.render(template, "cancellation", model));
+        }
+    }
+}
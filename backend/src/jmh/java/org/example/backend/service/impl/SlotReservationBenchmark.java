@@ -0,0 +1,133 @@
+package org.example.backend.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.data.AppointmentLock;
+import org.example.backend.data.Vet;
+import org.example.backend.repository.VetRepository;
+import org.example.backend.service.SlotReservationEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reserve-then-release of one popular vet's slots by many clients at once, in memory versus the appointment_locks
+ * table. Both engines run against the same Postgres (Testcontainers, so Docker is required); the in-memory one only
+ * touches it for the first existence check of the vet.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class SlotReservationBenchmark {
+
+    private static final int SLOTS = 32;
+
+    @Param({"memory", "jpa"})
+    public String engineName;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private SlotReservationEngine engine;
+    private UUID vetId;
+    private OffsetDateTime firstSlot;
+
+    @Setup(Level.Trial)
+    public void start() {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        context = new SpringApplicationBuilder(JpaOnly.class)
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.datasource.hikari.maximum-pool-size=32",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true")
+                .run();
+
+        VetRepository vets = context.getBean(VetRepository.class);
+        vetId = vets.save(Vet.builder()
+                .fullName("Benchmark Vet")
+                .email("bench-" + UUID.randomUUID() + "@example.org")
+                .specialities("general")
+                .password("unused")
+                .isActive(true)
+                .build()).getId();
+        engine = engineName.equals("memory")
+                ? new InMemorySlotReservationEngine(vets, context.getBean(MeterRegistry.class))
+                : context.getBean(JpaSlotReservationEngine.class);
+        firstSlot = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1).withHour(8).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+        postgres.stop();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        final UUID userId = UUID.randomUUID();
+    }
+
+    /* A lost race is a normal outcome for a popular slot, so it is measured rather than treated as an error */
+    @Benchmark
+    public void reserveAndRelease(Client client, Blackhole blackhole) {
+        OffsetDateTime slot = firstSlot.plusMinutes(30L * ThreadLocalRandom.current().nextInt(SLOTS));
+        try {
+            AppointmentLock lock = engine.reserve(vetId, slot, client.userId, 30, OffsetDateTime.now().plusMinutes(10));
+            engine.release(lock.getId(), client.userId);
+            blackhole.consume(lock);
+        } catch (DataAccessException lost) {
+            blackhole.consume(lost);
+        }
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Vet.class)
+    @EnableJpaRepositories(basePackageClasses = VetRepository.class)
+    @Import(JpaSlotReservationEngine.class)
+    static class JpaOnly {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+
+/**
+ * Memoized hasClinicAccess decisions per (account, clinic), denials included. Clinic account and vet membership
+ * writes evict the affected entries, immediately and again after commit like PrincipalCache; the TTL bounds
+ * staleness from writes that bypass the services.
+ */
+@Component
+public class ClinicAccessCache {
+
+    private final Cache<AccessKey, Boolean> decisions;
+
+    public ClinicAccessCache(MeterRegistry meterRegistry,
+                             @Value("${security.clinic-access-cache.max-size:50000}") long maxSize,
+                             @Value("${security.clinic-access-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.decisions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, decisions, "clinicAccess");
+    }
+
+    public boolean get(UUID accountId, UUID clinicId, BiPredicate<UUID, UUID> loader) {
+        return decisions.get(new AccessKey(accountId, clinicId), key -> loader.test(key.accountId(), key.clinicId()));
+    }
+
+    public void evict(UUID accountId, UUID clinicId) {
+        AccessKey key = new AccessKey(accountId, clinicId);
+        decisions.invalidate(key);
+        afterCommit(() -> decisions.invalidate(key));
+    }
+
+    /* Scans the cache; only used when an account or clinic is deleted */
+    public void evictAccount(UUID accountId) {
+        Runnable evict = () -> decisions.asMap().keySet().removeIf(key -> key.accountId().equals(accountId));
+        evict.run();
+        afterCommit(evict);
+    }
+
+    public void evictClinic(UUID clinicId) {
+        Runnable evict = () -> decisions.asMap().keySet().removeIf(key -> key.clinicId().equals(clinicId));
+        evict.run();
+        afterCommit(evict);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private record AccessKey(UUID accountId, UUID clinicId) {
+    }
+}
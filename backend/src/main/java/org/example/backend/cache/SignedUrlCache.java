@@ -0,0 +1,85 @@
+package org.example.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Signed URLs by object, reused until a safety margin before the signature runs out, so a page listing many pets
+ * or records signs each object once per signature lifetime instead of once per request. Delete and rename evict.
+ */
+@Component
+public class SignedUrlCache {
+
+    private final Cache<ObjectKey, Signed> urls;
+    private final Duration margin;
+
+    public SignedUrlCache(MeterRegistry meterRegistry,
+                          @Value("${storage.signed-url-cache.max-size:100000}") long maxSize,
+                          @Value("${storage.signed-url-cache.margin-seconds:300}") long marginSeconds) {
+        this.margin = Duration.ofSeconds(marginSeconds);
+        this.urls = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<ObjectKey, Signed>() {
+                    @Override
+                    public long expireAfterCreate(ObjectKey key, Signed value, long currentTime) {
+                        return value.cacheNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ObjectKey key, Signed value, long currentTime, long currentDuration) {
+                        return value.cacheNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(ObjectKey key, Signed value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, urls, "signedUrls");
+    }
+
+    /*
+     * signer is only called on a miss, or when the cached URL was signed for a different validity or download name.
+     * The name is not part of the key so that evict stays a single invalidation.
+     */
+    public String get(String bucket, String object, Duration validity, String downloadName, Supplier<String> signer) {
+        Duration cacheFor = validity.minus(margin);
+        if (cacheFor.isNegative() || cacheFor.isZero()) {
+            return signer.get();
+        }
+        ObjectKey key = new ObjectKey(bucket, object);
+        Signed cached = urls.getIfPresent(key);
+        if (cached != null && cached.validity().equals(validity) && Objects.equals(cached.downloadName(), downloadName)) {
+            return cached.url();
+        }
+        Signed signed = new Signed(signer.get(), validity, downloadName, cacheFor.toNanos());
+        urls.put(key, signed);
+        return signed.url();
+    }
+
+    public void evict(String bucket, String object) {
+        urls.invalidate(new ObjectKey(bucket, object));
+    }
+
+    /* Scans the cache; only used when a whole folder is deleted */
+    public void evictPrefix(String bucket, String prefix) {
+        urls.asMap().keySet().removeIf(key -> key.bucket().equals(bucket) && key.object().startsWith(prefix));
+    }
+
+    private record ObjectKey(String bucket, String object) {
+    }
+
+    private record Signed(String url, Duration validity, String downloadName, long cacheNanos) {
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.backend.dto.AppointmentDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Appointments of one vet bucketed per UTC day. Buckets are filled in bulk on a miss and dropped by the
+ * appointment write paths, both immediately and again after commit so a concurrent reader cannot re-cache
+ * pre-commit rows. The TTL bounds staleness from writes that bypass the services.
+ */
+@Component
+public class VetCalendarCache {
+
+    private static final int MAX_CACHED_WINDOW_DAYS = 62;
+
+    private final Cache<DayKey, List<AppointmentDTO>> days;
+
+    public VetCalendarCache(MeterRegistry meterRegistry,
+                            @Value("${appointments.calendar-cache.max-days:50000}") long maxDays,
+                            @Value("${appointments.calendar-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.days = Caffeine.newBuilder()
+                .maximumSize(maxDays)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, days, "vetCalendar");
+    }
+
+    /**
+     * Appointments of the vet in [from, to]; loader(start, end) fetches every appointment of the vet
+     * between start and end inclusive and is called at most once per lookup.
+     */
+    public List<AppointmentDTO> get(UUID vetId, OffsetDateTime from, OffsetDateTime to,
+                                    BiFunction<OffsetDateTime, OffsetDateTime, List<AppointmentDTO>> loader) {
+        LocalDate first = dayOf(from);
+        LocalDate last = dayOf(to);
+        if (last.isBefore(first) || first.plusDays(MAX_CACHED_WINDOW_DAYS).isBefore(last)) {
+            return loader.apply(from, to);
+        }
+
+        List<DayKey> keys = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            keys.add(new DayKey(vetId, day));
+        }
+        Map<DayKey, List<AppointmentDTO>> buckets = days.getAll(keys, missing -> load(missing, loader));
+
+        List<AppointmentDTO> result = new ArrayList<>();
+        for (DayKey key : keys) {
+            for (AppointmentDTO a : buckets.getOrDefault(key, List.of())) {
+                if (!a.appointmentDate().isBefore(from) && !a.appointmentDate().isAfter(to)) {
+                    result.add(a);
+                }
+            }
+        }
+        return result;
+    }
+
+    public void evict(UUID vetId, OffsetDateTime appointmentDate) {
+        DayKey key = new DayKey(vetId, dayOf(appointmentDate));
+        days.invalidate(key);
+        afterCommit(() -> days.invalidate(key));
+    }
+
+    public void evictAll() {
+        days.invalidateAll();
+        afterCommit(days::invalidateAll);
+    }
+
+    private static Map<DayKey, List<AppointmentDTO>> load(Set<? extends DayKey> missing,
+                                                          BiFunction<OffsetDateTime, OffsetDateTime, List<AppointmentDTO>> loader) {
+        LocalDate first = missing.stream().map(DayKey::day).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate last = missing.stream().map(DayKey::day).max(Comparator.naturalOrder()).orElseThrow();
+        UUID vetId = missing.iterator().next().vetId();
+
+        Map<DayKey, List<AppointmentDTO>> loaded = new HashMap<>();
+        for (DayKey key : missing) {
+            loaded.put(key, new ArrayList<>());
+        }
+        OffsetDateTime start = first.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime end = last.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC).minusNanos(1000);
+        for (AppointmentDTO a : loader.apply(start, end)) {
+            List<AppointmentDTO> bucket = loaded.get(new DayKey(vetId, dayOf(a.appointmentDate())));
+            if (bucket != null) {
+                bucket.add(a);
+            }
+        }
+        loaded.replaceAll((key, bucket) -> List.copyOf(bucket));
+        return loaded;
+    }
+
+    private static LocalDate dayOf(OffsetDateTime time) {
+        return time.atZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private record DayKey(UUID vetId, LocalDate day) {
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * One bounded executor per workload instead of Boot's default pool with its unbounded queue. A full queue pushes
+ * the work back onto the submitting thread (CallerRunsPolicy), which slows producers down instead of growing the heap.
+ * Pool size, queue depth and rejections are published per executor under the executor.* meters.
+ */
+@Configuration
+public class AsyncConfig implements AsyncConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    public AsyncConfig(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+    }
+
+    @Bean(name = "emailExecutor")
+    public Executor emailExecutor(@Value("${async.virtual-threads:false}") boolean virtualThreads) {
+        return virtualThreads ? virtual("email") : pool("email");
+    }
+
+    @Bean(name = "storageExecutor")
+    public Executor storageExecutor(@Value("${async.virtual-threads:false}") boolean virtualThreads) {
+        return virtualThreads ? virtual("storage") : pool("storage");
+    }
+
+    /* Thumbnail decoding and scaling is CPU bound, so it always stays on platform threads */
+    @Bean(name = "imageExecutor")
+    public Executor imageExecutor() {
+        return pool("image");
+    }
+
+    /* CPU and database bound, so it always stays on platform threads */
+    @Bean(name = "analyticsExecutor")
+    public Executor analyticsExecutor() {
+        return pool("analytics");
+    }
+
+    /*
+     * BCrypt is pure CPU, so one thread per core and a short queue. Overflow is rejected rather than run on the
+     * caller: a login storm then fails fast instead of tying up every request thread on hashing.
+     */
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setCorePoolSize(property("password-hash", "core-size", cores));
+        executor.setMaxPoolSize(property("password-hash", "max-size", cores));
+        executor.setQueueCapacity(property("password-hash", "queue-capacity", cores * 16));
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "password-hash", Tags.empty());
+        return executor;
+    }
+
+    /* Fallback for a bare @Async without an executor name */
+    @Override
+    public Executor getAsyncExecutor() {
+        return analyticsExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("Async call {} failed: {}", method.getName(), ex.getMessage(), ex);
+    }
+
+    private ThreadPoolTaskExecutor pool(String name) {
+        Counter rejections = meterRegistry.counter("executor.rejected.callerruns", "name", name);
+        ThreadPoolExecutor.CallerRunsPolicy callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-");
+        executor.setCorePoolSize(property(name, "core-size", 2));
+        executor.setMaxPoolSize(property(name, "max-size", 8));
+        executor.setQueueCapacity(property(name, "queue-capacity", 500));
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejections.increment();
+            callerRuns.rejectedExecution(task, pool);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), name, Tags.empty());
+        return executor;
+    }
+
+    /* Blocking SMTP/GCS calls park cheaply on virtual threads; the concurrency limit is the back-pressure here */
+    private SimpleAsyncTaskExecutor virtual(String name) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(name + "-vt-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(property(name, "max-size", 8) * 16);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+
+    private int property(String executor, String key, int defaultValue) {
+        return environment.getProperty("async." + executor + "." + key, Integer.class, defaultValue);
+    }
+}
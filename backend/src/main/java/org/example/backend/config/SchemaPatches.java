@@ -0,0 +1,38 @@
+package org.example.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/* Column changes hibernate's schema update does not apply on its own (it never relaxes constraints); all idempotent */
+@Component
+public class SchemaPatches {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaPatches.class);
+
+    private static final String[] STATEMENTS = {
+            /* Queued mails carry template + model and are rendered at dispatch */
+            "ALTER TABLE dev.email_notifications ALTER COLUMN body DROP NOT NULL"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaPatches(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void apply() {
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (DataAccessException e) {
+                log.warn("Schema patch skipped ({}): {}", statement, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+
+/**
+ * Backfills the normalized search columns and prepares the pg_trgm indexes behind the name search. The backfill runs
+ * once every singleton (and so hibernate's schema update) is done but before the web server starts, and does not
+ * depend on the extension: the search queries filter on these columns either way. On anything other than PostgreSQL,
+ * or when the extension cannot be created, search falls back to plain LIKE over the same columns.
+ */
+@Component
+public class TrigramSearchSupport implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TrigramSearchSupport.class);
+
+    private static final String[] BACKFILL = {
+            "UPDATE dev.pets SET search_name = lower(regexp_replace(trim(name), '\\s+', ' ', 'g')) WHERE search_name IS NULL",
+            "UPDATE dev.users SET search_full_name = lower(regexp_replace(trim(full_name), '\\s+', ' ', 'g')) WHERE search_full_name IS NULL"
+    };
+
+    private static final String[] INDEXES = {
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_pets_search_name_trgm ON dev.pets USING gin (search_name gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_users_search_full_name_trgm ON dev.users USING gin (search_full_name gin_trgm_ops)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean available;
+
+    public TrigramSearchSupport(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /* Rows written before the columns existed would otherwise never match a search */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String statement : BACKFILL) {
+            try {
+                int rows = jdbcTemplate.update(statement);
+                if (rows > 0) {
+                    log.info("Backfilled {} search names: {}", rows, statement);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Search name backfill failed ({}): {}", statement, e.getMessage());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepare() {
+        try {
+            String product = jdbcTemplate.execute((java.sql.Connection connection) -> {
+                DatabaseMetaData metaData = connection.getMetaData();
+                return metaData.getDatabaseProductName();
+            });
+            if (!"PostgreSQL".equalsIgnoreCase(product)) {
+                log.info("Trigram search disabled, database is {}", product);
+                return;
+            }
+            for (String statement : INDEXES) {
+                jdbcTemplate.execute(statement);
+            }
+            available = true;
+        } catch (DataAccessException e) {
+            log.warn("Trigram search unavailable, falling back to LIKE: {}", e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+}
@@ -3,6 +3,8 @@ package org.example.backend.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.example.backend.dto.AppointmentDTO;
+import org.example.backend.dto.AppointmentSliceDTO;
+import org.example.backend.dto.BatchBookingResultDTO;
 import org.example.backend.service.AppointmentService;
 import org.example.backend.service.UserService;
 import org.example.backend.service.VetService;
@@ -31,6 +33,13 @@ public class AppointmentController {
         return svc.book(dto, requesterId);
     }
 
+    /* Bulk import for a clinic: each row is booked or rejected on its own, see BatchBookingResultDTO */
+    @PostMapping("/clinic/{clinicId}/batch")
+    @PreAuthorize("@clinicAccountService.hasClinicAccess(authentication.name, #clinicId) or hasRole('ADMIN')")
+    public BatchBookingResultDTO bookBatch(@PathVariable UUID clinicId, @RequestBody List<AppointmentDTO> rows) {
+        return svc.bookBatch(clinicId, rows);
+    }
+
     @DeleteMapping("/{id}")
     public void delete(@PathVariable UUID id, @AuthenticationPrincipal UserDetails user) {
         UUID requesterId = UUID.fromString(user.getUsername());
@@ -109,6 +118,32 @@ public class AppointmentController {
         return svc.vetPastAppointments(vetId, petName, petOwnerName, pageable);
     }
 
+    /* Cursor-based counterparts of the past-paged endpoints: pass back nextCursor to get the following slice */
+    @GetMapping("/clinic/{clinicId}/past-cursor")
+    @PreAuthorize("hasAnyRole('VET', 'OWNER')")
+    public AppointmentSliceDTO getPastAppointmentsSlice(@PathVariable UUID clinicId, @RequestParam OffsetDateTime from, @RequestParam OffsetDateTime to, @RequestParam(required = false) String petName, @RequestParam(required = false) String petOwnerName, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size, @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return svc.clinicPastAppointmentsAfter(clinicId, from, to, petName, petOwnerName, cursor, size, includeTotal);
+    }
+
+    @GetMapping("/owner/{ownerId}/past-cursor")
+    @PreAuthorize("#ownerId.toString() == authentication.name or hasRole('ADMIN')")
+    public AppointmentSliceDTO getPastAppointmentsByOwnerSlice(@PathVariable UUID ownerId, @RequestParam(required = false) String petName, @RequestParam(required = false) String petOwnerName, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size, @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return svc.ownerPastAppointmentsAfter(ownerId, petName, petOwnerName, cursor, size, includeTotal);
+    }
+
+    @GetMapping("/vet/{vetId}/past-cursor")
+    @PreAuthorize("#vetId.toString() == authentication.name or hasRole('ADMIN')")
+    public AppointmentSliceDTO getPastAppointmentsByVetSlice(@PathVariable UUID vetId, @RequestParam(required = false) String petName, @RequestParam(required = false) String petOwnerName, @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int size, @RequestParam(defaultValue = "false") boolean includeTotal) {
+        return svc.vetPastAppointmentsAfter(vetId, petName, petOwnerName, cursor, size, includeTotal);
+    }
+
+    /* Typeahead over pet and owner names in a clinic's history, best matches first */
+    @GetMapping("/clinic/{clinicId}/search")
+    @PreAuthorize("hasAnyRole('VET', 'OWNER')")
+    public List<AppointmentDTO> searchClinicAppointments(@PathVariable UUID clinicId, @RequestParam("q") String query, @RequestParam(defaultValue = "10") int limit) {
+        return svc.searchClinicAppointmentsByName(clinicId, query, limit);
+    }
+
     @GetMapping("/clinic/{clinicId}/confirmed-pets")
     @PreAuthorize("@clinicAccountService.hasClinicAccess(authentication.name, #clinicId) or hasRole('ADMIN')")
     public List<org.example.backend.dto.PetDTO> getConfirmedPetsForClinic(@PathVariable UUID clinicId) {
@@ -0,0 +1,41 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.AppointmentDTO;
+import org.example.backend.dto.AppointmentSeriesDTO;
+import org.example.backend.service.AppointmentSeriesService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/appointment-series")
+@RequiredArgsConstructor
+public class AppointmentSeriesController {
+
+    private final AppointmentSeriesService seriesService;
+
+    @PostMapping
+    public AppointmentSeriesDTO create(@RequestBody AppointmentSeriesDTO dto, @AuthenticationPrincipal UserDetails userDetails) {
+        UUID requesterId = UUID.fromString(userDetails.getUsername());
+        return seriesService.create(dto, requesterId);
+    }
+
+    /* Turns one projected occurrence into a confirmed appointment row */
+    @PostMapping("/{id}/occurrences/confirm")
+    public AppointmentDTO confirmOccurrence(@PathVariable UUID id, @RequestParam OffsetDateTime at, @AuthenticationPrincipal UserDetails userDetails) {
+        UUID requesterId = UUID.fromString(userDetails.getUsername());
+        return seriesService.confirmOccurrence(id, at, requesterId);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancel(@PathVariable UUID id, @AuthenticationPrincipal UserDetails userDetails) {
+        UUID requesterId = UUID.fromString(userDetails.getUsername());
+        seriesService.cancel(id, requesterId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,11 +2,17 @@ package org.example.backend.controller;
 
 import jakarta.servlet.http.HttpServletResponse;
 import org.example.backend.dto.UserDTO;
+import org.example.backend.security.CustomUserDetailsService;
 import org.example.backend.security.JwtUtil;
+import org.example.backend.security.LoginAuthenticationProvider;
+import org.example.backend.security.RefreshTokenService;
+import org.example.backend.security.TokenRevocationList;
+import org.example.backend.security.VetDetailsService;
 import org.example.backend.service.UserService;
 import org.example.backend.service.VetClinicMembershipService;
 import org.example.backend.service.VetService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +29,11 @@ import java.util.UUID;
 @RequestMapping("/auth")
 public class AuthController {
 
+    private static final String REFRESH_COOKIE = "refreshToken";
+
+    @Value("${jwt.reissue-before-expiry-seconds:300}")
+    private long reissueBeforeExpirySeconds;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -38,6 +49,18 @@ public class AuthController {
     @Autowired
     private VetClinicMembershipService vetClinicMembershipService;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private CustomUserDetailsService ownerDetailsService;
+
+    @Autowired
+    private VetDetailsService vetDetailsService;
+
     @PostMapping("/login")
     public ResponseEntity<?> authenticate(@RequestBody Map<String, Object> body, HttpServletResponse res) {
 
@@ -45,42 +68,69 @@ public class AuthController {
 
         boolean keep = (boolean) body.getOrDefault("keepLoggedIn", false);
         long exp = keep ? 7 * 24 * 3600 : jwtUtil.getExpiration();
-        String token = jwtUtil.generateToken(auth, exp);
+        long accessExp = Math.min(exp, jwtUtil.getAccessExpiration());
+        String token = jwtUtil.generateToken(auth, accessExp);
 
-        ResponseCookie cookie = ResponseCookie.from("jwtToken", token).httpOnly(true).secure(false).path("/").maxAge(exp).build();
+        ResponseCookie cookie = ResponseCookie.from("jwtToken", token).httpOnly(true).secure(false).path("/").maxAge(accessExp).build();
 
         String userId = ((org.springframework.security.core.userdetails.UserDetails) auth.getPrincipal()).getUsername();
         boolean isVet = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_VET"));
+        ResponseCookie refreshCookie = refreshCookie(refreshTokenService.issue(UUID.fromString(userId), isVet ? JwtUtil.TYPE_VET : JwtUtil.TYPE_USER, exp));
 
         if (isVet) {
             var vetDto = vetService.getVet(UUID.fromString(userId));
-            return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString()).body(Map.of("role", "VET", "token", token, "vet", vetDto));
+            return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString(), refreshCookie.toString()).body(Map.of("role", "VET", "token", token, "vet", vetDto));
         }
 
         var userDto = userService.getUserById(UUID.fromString(userId));
 
         System.out.println("THIS IS THE DATA THE USER GETS: " + ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString()).body(Map.of("role", userDto.role(), "token", token, "user", userDto).toString()));
 
-        return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString()).body(Map.of("role", userDto.role(), "token", token, "user", userDto));
+        return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString(), refreshCookie.toString()).body(Map.of("role", userDto.role(), "token", token, "user", userDto));
     }
 
+    /*
+     * Returns the current principal. The access token is only re-issued when it is close to expiry, or from the
+     * refresh cookie once it has expired, instead of on every page load.
+     */
     @GetMapping("/user")
-    public ResponseEntity<?> currentUser(@CookieValue(value = "jwtToken", required = false) String token) {
-        if (token == null || token.isEmpty() || !jwtUtil.validateToken(token)) {
+    public ResponseEntity<?> currentUser(@CookieValue(value = "jwtToken", required = false) String token,
+                                         @CookieValue(value = REFRESH_COOKIE, required = false) String refreshToken) {
+        io.jsonwebtoken.Claims claims = token == null || token.isEmpty() ? null : jwtUtil.parseClaims(token);
+        if (claims != null && tokenRevocationList.isRevoked(claims.getId())) {
+            claims = null;
+        }
+
+        String userId;
+        List<String> cookies = new java.util.ArrayList<>();
+        if (claims != null) {
+            userId = claims.getSubject();
+            long remainingSeconds = (claims.getExpiration().getTime() - System.currentTimeMillis()) / 1000;
+            if (remainingSeconds < reissueBeforeExpirySeconds) {
+                token = jwtUtil.generateToken(claims, jwtUtil.getAccessExpiration());
+                cookies.add(accessCookie(token, jwtUtil.getAccessExpiration()).toString());
+            }
+        } else if (refreshToken != null && !refreshToken.isEmpty()) {
+            RefreshTokenService.Issued rotated;
+            try {
+                rotated = refreshTokenService.rotate(refreshToken);
+                token = accessTokenFor(rotated);
+            } catch (SecurityException e) {
+                return ResponseEntity.status(401).body(Map.of("error", e.getMessage()));
+            }
+            userId = rotated.subject().toString();
+            cookies.add(accessCookie(token, jwtUtil.getAccessExpiration()).toString());
+            cookies.add(refreshCookie(rotated).toString());
+        } else {
             return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
         }
+        String[] setCookies = cookies.toArray(String[]::new);
 
-        String userId = jwtUtil.extractUserId(token);
         System.out.println("If the cookie is on this baby:::: ");
         try {
             UserDTO userDTO = userService.getUserById(UUID.fromString(userId));
             if (userDTO != null) {
-                long tokenExpiry = jwtUtil.getExpiration();
-                String refreshedToken = jwtUtil.generateToken(userId, tokenExpiry);
-
-                ResponseCookie jwtCookie = ResponseCookie.from("jwtToken", refreshedToken).httpOnly(true).secure(false).path("/").maxAge(tokenExpiry).build();
-
-                return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, jwtCookie.toString()).body(Map.of("user", userDTO, "token", refreshedToken));
+                return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, setCookies).body(Map.of("user", userDTO, "token", token));
             }
         } catch (Exception e) {
         }
@@ -91,12 +141,7 @@ public class AuthController {
                 List<UUID> clinicIds = vetClinicMembershipService.clinicsForVet(UUID.fromString(userId));
                 UUID primaryClinicId = clinicIds.isEmpty() ? null : clinicIds.get(0);
 
-                long tokenExpiry = jwtUtil.getExpiration();
-                String refreshedToken = jwtUtil.generateToken(userId, tokenExpiry);
-
-                ResponseCookie jwtCookie = ResponseCookie.from("jwtToken", refreshedToken).httpOnly(true).secure(false).path("/").maxAge(tokenExpiry).build();
-
-                return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, jwtCookie.toString()).body(Map.of("vet", vetDto, "token", refreshedToken, "primaryClinicId", primaryClinicId, "clinicIds", clinicIds));
+                return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, setCookies).body(Map.of("vet", vetDto, "token", token, "primaryClinicId", primaryClinicId, "clinicIds", clinicIds));
             }
         } catch (Exception e) {
         }
@@ -104,18 +149,69 @@ public class AuthController {
         return ResponseEntity.status(401).body(Map.of("error", "User not found"));
     }
 
+    /* Trades a refresh token for a new access token and the next refresh token of the same family */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@CookieValue(value = REFRESH_COOKIE, required = false) String refreshToken) {
+        if (refreshToken == null || refreshToken.isEmpty()) {
+            return ResponseEntity.status(401).body(Map.of("error", "Not authenticated"));
+        }
+        try {
+            RefreshTokenService.Issued rotated = refreshTokenService.rotate(refreshToken);
+            String token = accessTokenFor(rotated);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, accessCookie(token, jwtUtil.getAccessExpiration()).toString(), refreshCookie(rotated).toString())
+                    .body(Map.of("token", token));
+        } catch (SecurityException e) {
+            return ResponseEntity.status(401).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/logout")
-    public ResponseEntity<?> logout(HttpServletResponse response) {
+    public ResponseEntity<?> logout(@CookieValue(value = "jwtToken", required = false) String token,
+                                    @CookieValue(value = REFRESH_COOKIE, required = false) String refreshToken,
+                                    HttpServletResponse response) {
+        io.jsonwebtoken.Claims claims = token == null || token.isEmpty() ? null : jwtUtil.parseClaims(token);
+        if (claims != null) {
+            tokenRevocationList.revoke(claims.getId(), claims.getExpiration().toInstant().atOffset(java.time.ZoneOffset.UTC));
+        }
+        if (refreshToken != null && !refreshToken.isEmpty()) {
+            refreshTokenService.revokeFamilyOf(refreshToken);
+        }
+
         ResponseCookie cookie = ResponseCookie.from("jwtToken", "").httpOnly(true).secure(false).path("/").maxAge(0).build();
+        ResponseCookie clearedRefresh = ResponseCookie.from(REFRESH_COOKIE, "").httpOnly(true).secure(false).path("/auth").maxAge(0).build();
 
-        return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString()).body(Map.of("message", "Logged out successfully"));
+        return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString(), clearedRefresh.toString()).body(Map.of("message", "Logged out successfully"));
+    }
+
+    private String accessTokenFor(RefreshTokenService.Issued rotated) {
+        String subject = rotated.subject().toString();
+        org.springframework.security.core.userdetails.UserDetails principal = JwtUtil.TYPE_VET.equals(rotated.principalType())
+                ? vetDetailsService.loadVetById(subject)
+                : ownerDetailsService.loadUserById(subject);
+        if (!principal.isAccountNonLocked()) {
+            throw new SecurityException("Account is locked.");
+        }
+        return jwtUtil.generateToken(principal, jwtUtil.getAccessExpiration());
+    }
+
+    private static ResponseCookie accessCookie(String token, long maxAge) {
+        return ResponseCookie.from("jwtToken", token).httpOnly(true).secure(false).path("/").maxAge(maxAge).build();
+    }
+
+    /* Scoped to /auth so the refresh token is never sent along with ordinary API calls */
+    private static ResponseCookie refreshCookie(RefreshTokenService.Issued issued) {
+        long maxAge = Math.max(0, java.time.Duration.between(java.time.OffsetDateTime.now(), issued.expiresAt()).getSeconds());
+        return ResponseCookie.from(REFRESH_COOKIE, issued.token()).httpOnly(true).secure(false).path("/auth").maxAge(maxAge).build();
     }
 
 
     @PostMapping("/vet/login")
     public ResponseEntity<?> vetLogin(@RequestBody Map<String, Object> body, HttpServletResponse res) {
 
-        Authentication auth = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(body.get("email"), body.get("password")));
+        UsernamePasswordAuthenticationToken login = new UsernamePasswordAuthenticationToken(body.get("email"), body.get("password"));
+        login.setDetails(LoginAuthenticationProvider.VET_LOGIN);
+        Authentication auth = authenticationManager.authenticate(login);
 
         boolean isVet = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_VET"));
         if (!isVet) {
@@ -123,16 +219,18 @@ public class AuthController {
         }
 
         long exp = (boolean) body.getOrDefault("keepLoggedIn", false) ? 7 * 24 * 3600 : jwtUtil.getExpiration();
+        long accessExp = Math.min(exp, jwtUtil.getAccessExpiration());
 
-        String token = jwtUtil.generateToken(auth, exp);
-        ResponseCookie cookie = ResponseCookie.from("jwtToken", token).httpOnly(true).secure(false).path("/").maxAge(exp).build();
+        String token = jwtUtil.generateToken(auth, accessExp);
+        ResponseCookie cookie = ResponseCookie.from("jwtToken", token).httpOnly(true).secure(false).path("/").maxAge(accessExp).build();
 
         String vetId = ((org.springframework.security.core.userdetails.UserDetails) auth.getPrincipal()).getUsername();
+        ResponseCookie refreshCookie = refreshCookie(refreshTokenService.issue(UUID.fromString(vetId), JwtUtil.TYPE_VET, exp));
         var vetDto = vetService.getVet(UUID.fromString(vetId));
         List<UUID> clinicIds = vetClinicMembershipService.clinicsForVet(UUID.fromString(vetId));
         UUID primaryClinicId = clinicIds.isEmpty() ? null : clinicIds.get(0);
 
-        return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString()).body(Map.of("message", "Vet logged in", "token", token, "vet", vetDto, "primaryClinicId", primaryClinicId, "clinicIds", clinicIds));
+        return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString(), refreshCookie.toString()).body(Map.of("message", "Vet logged in", "token", token, "vet", vetDto, "primaryClinicId", primaryClinicId, "clinicIds", clinicIds));
     }
 
 
@@ -2,7 +2,9 @@ package org.example.backend.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.backend.dto.ClinicAvailabilityDTO;
 import org.example.backend.dto.VeterinaryClinicDTO;
+import org.example.backend.service.AppointmentService;
 import org.example.backend.service.UserService;
 import org.example.backend.service.VetService;
 import org.example.backend.service.VetClinicMembershipService;
@@ -14,6 +16,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -27,6 +30,7 @@ public class ClinicController {
     private final UserService userService;
     private final VetService vetService;
     private final VetClinicMembershipService vetClinicMembershipService;
+    private final AppointmentService appointmentService;
 
     @GetMapping("/{id}")
     public ResponseEntity<VeterinaryClinicDTO> get(@PathVariable UUID id) {
@@ -48,6 +52,14 @@ public class ClinicController {
         return ResponseEntity.ok(clinics);
     }
 
+    /**
+     * GET /clinics/{id}/availability?from=&to=&slotMinutes=  free-slot bitmap for every active vet of the clinic
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<ClinicAvailabilityDTO> availability(@PathVariable UUID id, @RequestParam OffsetDateTime from, @RequestParam OffsetDateTime to, @RequestParam(defaultValue = "15") int slotMinutes) {
+        return ResponseEntity.ok(appointmentService.clinicAvailability(id, from, to, slotMinutes));
+    }
+
     @GetMapping("/near")
     public List<VeterinaryClinicDTO> near(@RequestParam double lat, @RequestParam double lng, @RequestParam(defaultValue = "5") double radiusKm) {
         return service.getWithinRadius(lat, lng, radiusKm);
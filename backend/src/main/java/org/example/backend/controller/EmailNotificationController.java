@@ -0,0 +1,24 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.service.EmailService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/notifications/emails")
+@RequiredArgsConstructor
+public class EmailNotificationController {
+
+    private final EmailService emailService;
+
+    @GetMapping(value = "/{id}/body", produces = MediaType.TEXT_HTML_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> getBody(@PathVariable UUID id) {
+        return ResponseEntity.ok(emailService.renderStoredBody(id));
+    }
+}
@@ -3,6 +3,7 @@ package org.example.backend.controller;
 import com.google.cloud.storage.StorageException;
 import org.example.backend.data.Pet;
 import org.example.backend.googleApi.CloudStorageService;
+import org.example.backend.service.PetImageService;
 import org.example.backend.service.PetService;
 import org.example.backend.service.UserService;
 import org.springframework.core.env.Environment;
@@ -18,8 +19,12 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,16 +32,20 @@ import java.util.UUID;
 @RequestMapping("/api")
 public class FileUploadController {
 
+    private static final int MAX_BATCH_SIZE = 200;
+
     private final PetService petService;
     private final CloudStorageService storageSvc;
     private final Environment environment;
     private final UserService userService;
+    private final PetImageService petImageService;
 
-    public FileUploadController(CloudStorageService storageSvc, PetService petService, Environment environment, UserService userService) {
+    public FileUploadController(CloudStorageService storageSvc, PetService petService, Environment environment, UserService userService, PetImageService petImageService) {
         this.storageSvc = storageSvc;
         this.petService = petService;
         this.environment = environment;
         this.userService = userService;
+        this.petImageService = petImageService;
     }
 
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -50,7 +59,13 @@ public class FileUploadController {
         String objectName = userEmail + "/pets/" + file.getOriginalFilename();
 
         storageSvc.createFolderIfMissing(environment.getProperty("bucket-value"), userEmail + "/pets");
-        storageSvc.uploadObjectFromMemory(environment.getProperty("bucket-value"), objectName, file.getBytes());
+        /* Uploads never overwrite, so a re-upload under the same name replaces the old file explicitly */
+        if (storageSvc.blobExists(environment.getProperty("bucket-value"), objectName)) {
+            storageSvc.deleteObject(environment.getProperty("bucket-value"), objectName);
+        }
+        try (InputStream content = file.getInputStream()) {
+            storageSvc.uploadObjectFromStream(environment.getProperty("bucket-value"), objectName, content, file.getContentType());
+        }
 
         return ResponseEntity.ok("File uploaded.");
     }
@@ -85,9 +100,14 @@ public class FileUploadController {
 
         String avatarFolder = userEmail + "/pets/" + petName + "/avatar/";
         String recordsFolder = userEmail + "/pets/" + petName + "/records/";
-        String newObject = avatarFolder + petName + "." + ext;
+        /*
+         * A fresh name per upload: a thumbnail job still running for the previous photo can neither pass the
+         * imageUrl check in PetImageService nor overwrite this photo's thumbnails.
+         */
+        String newObject = avatarFolder + petName + "-" + UUID.randomUUID() + "." + ext;
 
         storageSvc.createFolderIfMissing(environment.getProperty("bucket-value"), avatarFolder);
+        petImageService.dropVariants(pet);
 
         if (pet.getImageUrl() != null && !pet.getImageUrl().isEmpty()) {
             if (storageSvc.blobExists(environment.getProperty("bucket-value"), pet.getImageUrl())) {
@@ -102,39 +122,43 @@ public class FileUploadController {
             }
         }
 
-        storageSvc.uploadObjectFromMemory(environment.getProperty("bucket-value"), newObject, file.getBytes());
+        try (InputStream content = file.getInputStream()) {
+            storageSvc.uploadObjectFromStream(environment.getProperty("bucket-value"), newObject, content, file.getContentType());
+        }
 
         pet.setImageUrl(newObject);
         petService.updatePet(pet.getId(), pet);
 
+        /* The multipart part is gone once the request ends, so the thumbnail job gets its own copy */
+        Path source = Files.createTempFile("avatar-", "." + ext);
+        file.transferTo(source);
+        petImageService.generateVariants(pet.getId(), newObject, source);
+
         return ResponseEntity.ok("Avatar replaced.");
     }
 
+    /* The avatar object is known from Pet.imageUrl, so nothing is probed in storage */
     @GetMapping("/picture/{petName}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> getPicture(Authentication auth, @PathVariable String petName) {
+    public ResponseEntity<?> getPicture(Authentication auth, @PathVariable String petName, @RequestParam(value = "size", required = false) Integer size) {
 
         String userId = ((User) auth.getPrincipal()).getUsername();
-        String userEmail = userService.getUserById(UUID.fromString(userId)).email();
-        String[] exts = {"jpg", "jpeg", "png", "webp"};
-
-        for (String ext : exts) {
-            String object = userEmail + "/pets/" + petName + "/avatar/" + petName + "." + ext;
-            if (storageSvc.blobExists(environment.getProperty("bucket-value"), object)) {
-                try {
-                    String url = storageSvc.generateSignedUrl(environment.getProperty("bucket-value"), object, 60);
-                    return ResponseEntity.ok(url);
-                } catch (StorageException se) {
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Unable to sign URL");
-                }
-            }
+        Optional<Pet> petOptional = petService.findPetByNameAndOwnerId(petName, UUID.fromString(userId));
+        if (petOptional.isEmpty() || petOptional.get().getImageUrl() == null || petOptional.get().getImageUrl().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No avatar found for pet: " + petName);
+        }
+
+        try {
+            String url = storageSvc.generateSignedUrl(environment.getProperty("bucket-value"), petImageService.objectFor(petOptional.get(), size), 60);
+            return ResponseEntity.ok(url);
+        } catch (StorageException se) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Unable to sign URL");
         }
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No avatar found for pet: " + petName);
     }
 
     @GetMapping("/pet-image/{petName}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> getPetImageFromDatabase(Authentication auth, @PathVariable String petName) {
+    public ResponseEntity<?> getPetImageFromDatabase(Authentication auth, @PathVariable String petName, @RequestParam(value = "size", required = false) Integer size) {
         String userId = ((User) auth.getPrincipal()).getUsername();
 
         Optional<Pet> petOptional = petService.findPetByNameAndOwnerId(petName, UUID.fromString(userId));
@@ -148,15 +172,23 @@ public class FileUploadController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No avatar uploaded for pet: " + petName);
         }
 
-        if (!storageSvc.blobExists(environment.getProperty("bucket-value"), pet.getImageUrl())) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Avatar file missing from storage for pet: " + petName + ". Database inconsistency detected.");
-        }
-
         try {
-            String url = storageSvc.generateSignedUrl(environment.getProperty("bucket-value"), pet.getImageUrl(), 60);
+            String url = storageSvc.generateSignedUrl(environment.getProperty("bucket-value"), petImageService.objectFor(pet, size), 60);
             return ResponseEntity.ok(url);
         } catch (StorageException se) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Unable to generate signed URL for pet: " + petName);
         }
     }
+
+    /* Avatar URLs for a whole list view in one call; vets and clinic staff may sign any pet, owners only their own */
+    @PostMapping("/pet-images/signed-urls")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<UUID, String>> getPetImageUrls(Authentication auth, @RequestBody List<UUID> petIds, @RequestParam(value = "size", required = false) Integer size) {
+        if (petIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " pets can be signed per request");
+        }
+        boolean anyOwner = auth.getAuthorities().stream()
+                .anyMatch(a -> List.of("ROLE_VET", "ROLE_OWNER", "ROLE_ADMIN").contains(a.getAuthority()));
+        return ResponseEntity.ok(petService.signedImageUrls(petIds, UUID.fromString(auth.getName()), anyOwner, size));
+    }
 }
@@ -0,0 +1,56 @@
+package org.example.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.storage.LocalObjectStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/* Serves the signed URLs handed out by LocalObjectStore; the signature is the only access check */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalObjectController {
+
+    private final LocalObjectStore store;
+
+    /* Returned as a Resource so Range requests (resumed downloads, PDF viewers) are answered with regions */
+    @GetMapping(LocalObjectStore.URL_PREFIX + "**")
+    public ResponseEntity<Resource> download(HttpServletRequest request,
+                                             @RequestParam("expires") long expires,
+                                             @RequestParam(value = "filename", required = false) String filename,
+                                             @RequestParam("signature") String signature) {
+        String encoded = request.getRequestURI().substring(request.getContextPath().length() + LocalObjectStore.URL_PREFIX.length());
+        String path = UriUtils.decode(encoded, StandardCharsets.UTF_8);
+        int slash = path.indexOf('/');
+        if (slash <= 0 || !store.verify(path, expires, filename, signature)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        String bucket = path.substring(0, slash);
+        String object = path.substring(slash + 1);
+        if (!store.exists(bucket, object)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String typedName = filename != null ? filename : object;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaTypeFactory.getMediaType(typedName).orElse(MediaType.APPLICATION_OCTET_STREAM));
+        if (filename != null) {
+            response.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build().toString());
+        }
+        return response.body(store.resource(bucket, object));
+    }
+}
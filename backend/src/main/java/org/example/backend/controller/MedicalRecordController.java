@@ -13,12 +13,15 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/medical-record")
 @RequiredArgsConstructor
 public class MedicalRecordController {
+    private static final int MAX_BATCH_SIZE = 200;
+
     private final MedicalRecordService medicalRecordService;
     private final UserService userService;
     private final VetService vetService;
@@ -54,6 +57,17 @@ public class MedicalRecordController {
         return ResponseEntity.ok(url);
     }
 
+    /* Download URLs for a list of records in one call; ids the caller may not read are omitted from the map */
+    @PostMapping("/download-urls")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<UUID, String>> downloadUrls(@RequestBody List<UUID> recordIds, Authentication authentication) {
+        if (recordIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " records can be signed per request");
+        }
+        boolean isAdmin = authentication.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        return ResponseEntity.ok(medicalRecordService.generateDownloadUrls(recordIds, authentication.getName(), isAdmin));
+    }
+
     @DeleteMapping("/{recordId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Void> deleteMedicalRecord(@PathVariable UUID recordId, @RequestParam(value = "isClinic", defaultValue = "false") boolean isClinic, @RequestParam(value = "clinicId", required = false) UUID clinicId, @RequestParam(value = "vetId", required = false) UUID vetId, Authentication authentication) {
@@ -0,0 +1,32 @@
+package org.example.backend.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.data.EmailDigestPreference;
+import org.example.backend.service.EmailDigestPreferenceService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/notifications")
+@RequiredArgsConstructor
+public class NotificationPreferenceController {
+
+    private final EmailDigestPreferenceService preferenceService;
+
+    @GetMapping("/digest")
+    public Map<String, String> getDigestMode(@AuthenticationPrincipal UserDetails userDetails) {
+        UUID accountId = UUID.fromString(userDetails.getUsername());
+        return Map.of("mode", preferenceService.getMode(accountId).name());
+    }
+
+    /* IMMEDIATE, FIVE_MINUTES or HOURLY */
+    @PutMapping("/digest")
+    public Map<String, String> setDigestMode(@RequestParam EmailDigestPreference.Mode mode, @AuthenticationPrincipal UserDetails userDetails) {
+        UUID accountId = UUID.fromString(userDetails.getUsername());
+        return Map.of("mode", preferenceService.setMode(accountId, mode).name());
+    }
+}
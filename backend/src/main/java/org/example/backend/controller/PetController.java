@@ -6,6 +6,7 @@ import org.example.backend.dto.PetDTO;
 import org.example.backend.dto.PetDTOId;
 import org.example.backend.dto.PetStatisticsDTO;
 import org.example.backend.googleApi.CloudStorageService;
+import org.example.backend.service.PetImageService;
 import org.example.backend.service.PetService;
 import org.example.backend.service.UserService;
 import org.springframework.core.env.Environment;
@@ -32,6 +33,7 @@ public class PetController {
     private final CloudStorageService storageSvc;
     private final Environment environment;
     private final PetValidation petValidation;
+    private final PetImageService petImageService;
 
     @GetMapping("/petid/{id}")
     @PreAuthorize("isAuthenticated()")
@@ -101,8 +103,13 @@ public class PetController {
                     storageSvc.renameObject(bucket, oldAvatarPath, newAvatarPath);
                 }
             }
-            if (existing.getImageUrl() != null && existing.getImageUrl().contains(oldName)) {
-                String newImageUrl = existing.getImageUrl().replace(oldName, newName);
+            String oldImageUrl = existing.getImageUrl();
+            String oldPrefix = avatarFolder + oldName + "/avatar/" + oldName;
+            if (oldImageUrl != null && oldImageUrl.startsWith(oldPrefix)) {
+                /* Avatars are named <petName>-<upload id>.<ext>; only the pet name parts change */
+                String newImageUrl = avatarFolder + newName + "/avatar/" + newName + oldImageUrl.substring(oldPrefix.length());
+                storageSvc.renameObject(bucket, oldImageUrl, newImageUrl);
+                petImageService.moveVariants(existing, newImageUrl);
                 petService.updatePetImageUrl(id, newImageUrl);
             }
         }
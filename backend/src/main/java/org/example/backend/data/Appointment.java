@@ -8,7 +8,13 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "appointments", schema = "dev", uniqueConstraints = @UniqueConstraint(columnNames = {"vet_id", "appointment_date"}))
+@Table(name = "appointments", schema = "dev",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"vet_id", "appointment_date"}),
+        indexes = {
+                @Index(name = "idx_appointments_clinic_date_id", columnList = "clinic_id, appointment_date, id"),
+                @Index(name = "idx_appointments_vet_date_id", columnList = "vet_id, appointment_date, id"),
+                @Index(name = "idx_appointments_pet_date_id", columnList = "pet_id, appointment_date, id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -32,6 +38,11 @@ public class Appointment {
     @JoinColumn(name = "clinic_id")
     private VeterinaryClinic clinic;
 
+    /* Set when the row was materialized from a recurring series */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "series_id")
+    private AppointmentSeries series;
+
     @Column(name = "appointment_date", nullable = false)
     private OffsetDateTime appointmentDate;
 
@@ -7,7 +7,12 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "appointment_locks", schema = "dev", uniqueConstraints = @UniqueConstraint(columnNames = {"vet_id", "appointment_time"}))
+@Table(name = "appointment_locks", schema = "dev",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"vet_id", "appointment_time"}),
+        indexes = {
+                @Index(name = "idx_appointment_locks_vet_time_expires", columnList = "vet_id, appointment_time, expires_at"),
+                @Index(name = "idx_appointment_locks_expires_at", columnList = "expires_at")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,77 @@
+package org.example.backend.data;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A recurring booking (a weekly physiotherapy course, a monthly check-up). Only the rule is stored; occurrences are
+ * expanded on read for the requested calendar window and become Appointment rows once confirmed.
+ */
+@Entity
+@Table(name = "appointment_series", schema = "dev",
+        indexes = {
+                @Index(name = "idx_appointment_series_vet", columnList = "vet_id, starts_at"),
+                @Index(name = "idx_appointment_series_clinic", columnList = "clinic_id, starts_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "pet_id")
+    private Pet pet;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "vet_id")
+    private Vet vet;
+
+    @ManyToOne(optional = false)
+    @JoinColumn(name = "clinic_id")
+    private VeterinaryClinic clinic;
+
+    @Column(name = "type", length = 64, nullable = false)
+    private String type;
+
+    @Column(columnDefinition = "text")
+    private String notes;
+
+    /* First occurrence; later ones keep its local time of day in timeZone */
+    @Column(name = "starts_at", nullable = false)
+    private OffsetDateTime startsAt;
+
+    /* IANA zone of the clinic, so a 09:00 series stays at 09:00 across DST; null on older rows means startsAt's offset */
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private Frequency frequency;
+
+    @Column(name = "repeat_interval", nullable = false)
+    private int interval;
+
+    /* Optional bounds, either or both may be set; with neither the series is open-ended */
+    @Column(name = "occurrence_count")
+    private Integer count;
+
+    @Column(name = "ends_at")
+    private OffsetDateTime until;
+
+    @Column(nullable = false)
+    private boolean active;
+
+    @Column(name = "created_by", nullable = false)
+    private UUID createdBy;
+
+    public enum Frequency {DAILY, WEEKLY, MONTHLY}
+}
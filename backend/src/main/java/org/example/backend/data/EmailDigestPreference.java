@@ -0,0 +1,41 @@
+package org.example.backend.data;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Duration;
+
+/* How long mails to one address are held back and folded into a single digest; no row means IMMEDIATE */
+@Entity
+@Table(name = "email_digest_preferences", schema = "dev")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailDigestPreference {
+
+    @Id
+    @Column(name = "recipient_email", length = 255)
+    private String recipientEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false)
+    private Mode mode;
+
+    public enum Mode {
+        IMMEDIATE(Duration.ZERO),
+        FIVE_MINUTES(Duration.ofMinutes(5)),
+        HOURLY(Duration.ofHours(1));
+
+        private final Duration window;
+
+        Mode(Duration window) {
+            this.window = window;
+        }
+
+        public Duration window() {
+            return window;
+        }
+    }
+}
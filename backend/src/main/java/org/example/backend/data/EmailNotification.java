@@ -6,8 +6,15 @@ import lombok.*;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
+/* Also the mail outbox: PENDING rows are picked up by EmailOutboxDispatcher once the writing transaction commits */
 @Entity
-@Table(name = "email_notifications", schema = "dev")
+@Table(name = "email_notifications", schema = "dev",
+        indexes = {
+                @Index(name = "idx_email_notifications_status_next_attempt", columnList = "status, next_attempt_at"),
+                @Index(name = "idx_email_notifications_recipient_status", columnList = "recipient_email, status"),
+                @Index(name = "idx_email_notifications_sent_at", columnList = "sent_at"),
+                @Index(name = "idx_email_notifications_created_at", columnList = "created_at")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,9 +31,16 @@ public class EmailNotification {
     @Column(nullable = false)
     private String subject;
 
-    @Column(columnDefinition = "TEXT", nullable = false)
+    /* Only set on rows written before mails were rendered at dispatch time; newer rows render on demand */
+    @Column(columnDefinition = "TEXT")
     private String body;
 
+    @Column(name = "template_name", length = 128)
+    private String templateName;
+
+    @Column(name = "model_json", columnDefinition = "TEXT")
+    private String modelJson;
+
     @Column(nullable = false)
     private String status;
 
@@ -34,4 +48,18 @@ public class EmailNotification {
 
     private String relatedEntityType;
     private UUID relatedEntityId;
-} 
\ No newline at end of file
+
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    /* The default lets schema update add the column to a table that already has rows */
+    @Column(name = "attempts", nullable = false, columnDefinition = "integer not null default 0")
+    private int attempts;
+
+    /* Earliest time the dispatcher may (re)try this row; also the lease end while a row is SENDING */
+    @Column(name = "next_attempt_at")
+    private OffsetDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -40,6 +40,11 @@ public class MedicalRecord {
     @Column(name = "gcs_path", nullable = false)
     private String gcsPath;
 
+    /* Shared content, null for records uploaded before deduplication; gcsPath then names the blob object */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blob_sha256")
+    private StoredBlob blob;
+
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt = OffsetDateTime.now();
 
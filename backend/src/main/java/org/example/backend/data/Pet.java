@@ -44,9 +44,17 @@ public class Pet {
     @JoinColumn(name = "owner_id")
     private User owner;
 
+    /* Normalized copy of name for the trigram search, see SearchText */
+    @Column(name = "search_name", length = 100)
+    private String searchName;
+
     @Column(name = "image_url", columnDefinition = "TEXT")
     private String imageUrl;
 
+    /* Comma-separated thumbnail sizes stored next to imageUrl, see PetImageService; null until they are generated */
+    @Column(name = "image_variant_sizes", length = 50)
+    private String imageVariantSizes;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -65,9 +73,15 @@ public class Pet {
         SMALL, MEDIUM, LARGE
     }
 
+    @PrePersist
+    protected void onCreate() {
+        this.searchName = SearchText.normalize(name);
+    }
+
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.searchName = SearchText.normalize(name);
     }
 
 
@@ -0,0 +1,50 @@
+package org.example.backend.data;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One link of a refresh-token rotation chain. Only the SHA-256 of the opaque token is stored. Every token of a login
+ * shares the family id, so presenting an already rotated token revokes the whole chain.
+ */
+@Entity
+@Table(name = "refresh_tokens", schema = "dev",
+        indexes = {
+                @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+                @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+
+    @Column(name = "subject", nullable = false)
+    private UUID subject;
+
+    @Column(name = "principal_type", nullable = false, length = 10)
+    private String principalType;
+
+    @Column(name = "expires_at", nullable = false)
+    private OffsetDateTime expiresAt;
+
+    @Column(name = "rotated_at")
+    private OffsetDateTime rotatedAt;
+
+    @Column(name = "revoked_at")
+    private OffsetDateTime revokedAt;
+}
@@ -0,0 +1,16 @@
+package org.example.backend.data;
+
+import java.util.Locale;
+
+/* Normal form used by the search_* columns: trimmed, lower-cased, single spaces */
+public final class SearchText {
+
+    private SearchText() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) return null;
+        String normalized = value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+}
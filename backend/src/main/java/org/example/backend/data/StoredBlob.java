@@ -0,0 +1,41 @@
+package org.example.backend.data;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.OffsetDateTime;
+
+/* One stored object per distinct content, shared by every MedicalRecord row that references it */
+@Entity
+@Table(name = "stored_blobs", schema = "dev", indexes = @Index(name = "idx_stored_blobs_orphaned_at", columnList = "orphaned_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredBlob {
+
+    @Id
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "object_name", nullable = false)
+    private String objectName;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "content_type", length = 255)
+    private String contentType;
+
+    /* Number of MedicalRecord rows pointing at this blob; the blob is orphaned when it reaches zero */
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private OffsetDateTime createdAt;
+
+    /* Set when refCount drops to zero; the row then stays as a tombstone until StoredBlobSweeper collects it */
+    @Column(name = "orphaned_at")
+    private OffsetDateTime orphanedAt;
+}
@@ -27,6 +27,10 @@ public class User {
     @Column(name = "full_name", nullable = false, length = 255)
     private String fullName;
 
+    /* Normalized copy of fullName for the trigram search, see SearchText */
+    @Column(name = "search_full_name", length = 255)
+    private String searchFullName;
+
     @Column(nullable = false, unique = true, length = 255)
     private String email;
 
@@ -65,10 +69,12 @@ public class User {
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
+        this.searchFullName = SearchText.normalize(fullName);
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.searchFullName = SearchText.normalize(fullName);
     }
 }
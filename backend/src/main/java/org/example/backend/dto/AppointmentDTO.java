@@ -1,6 +1,8 @@
 /* src/main/java/org/example/backend/dto/AppointmentDTO.java */
 package org.example.backend.dto;
 
+import org.example.backend.data.Appointment;
+
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
@@ -18,4 +20,12 @@ public record AppointmentDTO(
         String petOwnerName,
         String petOwnerPhone,
         String type
-) {}
+) {
+    /* Used by the JPQL constructor expressions in AppointmentRepository, which hand over the mapped enum */
+    public AppointmentDTO(UUID id, UUID petId, String petName, UUID vetId, String vetName, UUID clinicId,
+                          OffsetDateTime appointmentDate, Appointment.Status status, String notes,
+                          UUID petOwnerId, String petOwnerName, String petOwnerPhone, String type) {
+        this(id, petId, petName, vetId, vetName, clinicId, appointmentDate, status.name(), notes,
+                petOwnerId, petOwnerName, petOwnerPhone, type);
+    }
+}
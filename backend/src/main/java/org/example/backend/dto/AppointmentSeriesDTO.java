@@ -0,0 +1,21 @@
+package org.example.backend.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record AppointmentSeriesDTO(
+        UUID id,
+        UUID petId,
+        UUID vetId,
+        UUID clinicId,
+        String type,
+        String notes,
+        OffsetDateTime startsAt,
+        String frequency,
+        int interval,
+        Integer count,
+        OffsetDateTime until,
+        boolean active,
+        String timeZone
+) {
+}
@@ -0,0 +1,10 @@
+package org.example.backend.dto;
+
+import java.util.List;
+
+/* total is only filled when the caller asked for it */
+public record AppointmentSliceDTO(
+        List<AppointmentDTO> items,
+        String nextCursor,
+        Long total
+) {}
@@ -0,0 +1,10 @@
+package org.example.backend.dto;
+
+import java.util.List;
+
+public record BatchBookingResultDTO(
+        int created,
+        int rejected,
+        List<BatchBookingRowDTO> rows
+) {
+}
@@ -0,0 +1,19 @@
+package org.example.backend.dto;
+
+import java.util.UUID;
+
+/* Outcome of one row of a batch booking; index is the row's position in the request */
+public record BatchBookingRowDTO(
+        int index,
+        UUID appointmentId,
+        String status,
+        String error
+) {
+    public static BatchBookingRowDTO created(int index, UUID appointmentId) {
+        return new BatchBookingRowDTO(index, appointmentId, "CREATED", null);
+    }
+
+    public static BatchBookingRowDTO rejected(int index, String error) {
+        return new BatchBookingRowDTO(index, null, "REJECTED", error);
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.backend.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record BookedSlotDTO(
+        UUID vetId,
+        OffsetDateTime appointmentDate,
+        String type
+) {}
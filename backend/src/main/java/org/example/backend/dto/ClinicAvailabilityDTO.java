@@ -0,0 +1,14 @@
+package org.example.backend.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record ClinicAvailabilityDTO(
+        UUID clinicId,
+        OffsetDateTime from,
+        OffsetDateTime to,
+        int slotMinutes,
+        int slotCount,
+        List<VetAvailabilityDTO> vets
+) {}
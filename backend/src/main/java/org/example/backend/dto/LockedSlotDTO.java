@@ -0,0 +1,10 @@
+package org.example.backend.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record LockedSlotDTO(
+        UUID vetId,
+        OffsetDateTime appointmentTime,
+        int durationMinutes
+) {}
@@ -0,0 +1,13 @@
+package org.example.backend.dto;
+
+import java.util.UUID;
+
+/**
+ * freeSlots is a base64 bitmap: bit i (byte i / 8, bit i % 8, least significant first) is set when
+ * the slot starting at from + i * slotMinutes is free. Always ceil(slotCount / 8) bytes; bits past slotCount are 0.
+ */
+public record VetAvailabilityDTO(
+        UUID vetId,
+        String vetName,
+        String freeSlots
+) {}
@@ -1,78 +1,73 @@
 package org.example.backend.googleApi;
 
-import com.google.cloud.storage.Blob;
-import com.google.cloud.storage.BlobId;
-import com.google.cloud.storage.BlobInfo;
-import com.google.cloud.storage.Storage;
-import com.google.cloud.storage.Storage.BlobListOption;
+import org.example.backend.cache.SignedUrlCache;
+import org.example.backend.storage.ObjectStore;
+import org.example.backend.storage.StoredObject;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.net.URL;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 
+/* Application-facing storage calls; the backend behind them is the configured ObjectStore */
 @Service
 public class CloudStorageService {
 
-    private final Storage storage;
+    private final ObjectStore store;
+    private final SignedUrlCache signedUrlCache;
 
-    public CloudStorageService(Storage storage) {
-        this.storage = storage;
+    public CloudStorageService(ObjectStore store, SignedUrlCache signedUrlCache) {
+        this.store = store;
+        this.signedUrlCache = signedUrlCache;
     }
 
 
     public boolean blobExists(String bucket, String object) {
-        return storage.get(bucket, object) != null;
+        return store.exists(bucket, object);
     }
 
+    /* Signing is local but not free, and callers used to sign on every page load; see SignedUrlCache */
     public String generateSignedUrl(String bucket, String object, int minutes) {
-
-        URL url = storage.signUrl(BlobInfo.newBuilder(bucket, object).build(), minutes, TimeUnit.MINUTES, Storage.SignUrlOption.withV4Signature());
-
-        return url.toString();
+        return generateSignedUrl(bucket, object, minutes, null);
     }
 
+    /* Content-addressed objects have no useful name of their own, so the browser is told which one to save as */
+    public String generateSignedUrl(String bucket, String object, int minutes, String downloadName) {
+        Duration validity = Duration.ofMinutes(minutes);
+        return signedUrlCache.get(bucket, object, validity, downloadName, () -> store.signedUrl(bucket, object, validity, downloadName));
+    }
 
-    public void uploadObjectFromMemory(String bucket, String object, byte[] content) {
-
-        storage.create(BlobInfo.newBuilder(bucket, object).build(), content, Storage.BlobTargetOption.doesNotExist());
+    /* Fails when the object already exists; heap per upload is bounded by the store's chunk size */
+    public StoredObject uploadObjectFromStream(String bucket, String object, InputStream content, String contentType) throws IOException {
+        return store.upload(bucket, object, content, contentType);
     }
 
     public void createFolderIfMissing(String bucket, String folderPath) {
-        if (!folderPath.endsWith("/")) folderPath += "/";
-
-        if (!blobExists(bucket, folderPath)) {
-            storage.create(BlobInfo.newBuilder(bucket, folderPath).setContentType("application/x-directory").build());
-        }
+        store.createFolder(bucket, folderPath);
     }
 
     public void deleteObject(String bucket, String object) {
-        storage.delete(bucket, object);
+        store.delete(bucket, object);
+        signedUrlCache.evict(bucket, object);
     }
 
     public void copyObject(String sourceBucket, String sourceObject, String targetBucket, String targetObject) {
-
-        storage.copy(Storage.CopyRequest.newBuilder().setSource(BlobId.of(sourceBucket, sourceObject)).setTarget(BlobId.of(targetBucket, targetObject)).build());
+        store.copy(sourceBucket, sourceObject, targetBucket, targetObject);
+        signedUrlCache.evict(targetBucket, targetObject);
     }
 
     public void renameObject(String bucket, String oldObjectName, String newObjectName) {
-        if (blobExists(bucket, oldObjectName)) {
-            copyObject(bucket, oldObjectName, bucket, newObjectName);
-            deleteObject(bucket, oldObjectName);
-        }
+        store.rename(bucket, oldObjectName, newObjectName);
+        signedUrlCache.evict(bucket, oldObjectName);
+        signedUrlCache.evict(bucket, newObjectName);
     }
 
+    /* Listing and deleting a whole prefix is slow and nobody waits on the result */
+    @Async("storageExecutor")
     public void deleteFolderAndContents(String bucket, String folderPrefix) {
-        if (!folderPrefix.endsWith("/")) folderPrefix += "/";
-        Iterable<Blob> blobs = storage.list(bucket, BlobListOption.prefix(folderPrefix)).iterateAll();
-        List<BlobId> toDelete = new ArrayList<>();
-        for (Blob blob : blobs) {
-            toDelete.add(blob.getBlobId());
-        }
-        if (!toDelete.isEmpty()) {
-            storage.delete(toDelete);
-        }
+        store.deletePrefix(bucket, folderPrefix);
+        signedUrlCache.evictPrefix(bucket, folderPrefix);
     }
 
 }
@@ -1,10 +1,17 @@
 package org.example.backend.repository;
 
 import org.example.backend.data.AppointmentLock;
+import org.example.backend.dto.LockedSlotDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,7 +20,38 @@ public interface AppointmentLockRepository extends JpaRepository<AppointmentLock
 
     Optional<AppointmentLock> findByVetIdAndAppointmentTime(UUID vetId, OffsetDateTime appointmentTime);
 
-    void deleteAllByExpiresAtBefore(OffsetDateTime now);
+    /* Live locks of one vet inside [from, to], served from idx_appointment_locks_vet_time_expires without loading the Vet */
+    @Query("""
+                SELECT new org.example.backend.dto.LockedSlotDTO(l.vet.id, l.appointmentTime, l.durationMinutes)
+                FROM AppointmentLock l
+                WHERE l.vet.id = :vetId
+                  AND l.appointmentTime BETWEEN :from AND :to
+                  AND l.expiresAt >= :now
+            """)
+    List<LockedSlotDTO> findActiveSlotsForVet(@Param("vetId") UUID vetId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to, @Param("now") OffsetDateTime now);
+
+    @Query("""
+                SELECT new org.example.backend.dto.LockedSlotDTO(l.vet.id, l.appointmentTime, l.durationMinutes)
+                FROM AppointmentLock l
+                WHERE l.vet.id IN :vetIds
+                  AND l.appointmentTime BETWEEN :from AND :to
+                  AND l.expiresAt >= :now
+            """)
+    List<LockedSlotDTO> findActiveSlotsForVets(@Param("vetIds") Collection<UUID> vetIds, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to, @Param("now") OffsetDateTime now);
+
+    /* One bounded set-based delete walking idx_appointment_locks_expires_at; commits on its own so sweeps never hold long locks */
+    @Modifying
+    @Transactional
+    @Query(value = """
+                DELETE FROM dev.appointment_locks
+                WHERE id IN (
+                    SELECT id FROM dev.appointment_locks
+                    WHERE expires_at < :now
+                    ORDER BY expires_at
+                    LIMIT :batchSize
+                )
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") OffsetDateTime now, @Param("batchSize") int batchSize);
 
     Optional<AppointmentLock> findByUserId(UUID userId);
 
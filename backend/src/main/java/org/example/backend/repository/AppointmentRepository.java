@@ -2,6 +2,7 @@
 package org.example.backend.repository;
 
 import org.example.backend.data.Appointment;
+import org.example.backend.dto.AppointmentDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,37 +11,69 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, UUID> {
 
-    List<Appointment> findByVet_IdAndAppointmentDateBetween(UUID vetId, OffsetDateTime from, OffsetDateTime to);
-
+    /* Builds AppointmentDTO in the same SELECT, so mapping never walks the lazy pet -> owner association */
+    String DTO_SELECT = """
+                SELECT new org.example.backend.dto.AppointmentDTO(
+                    a.id, p.id, p.name, v.id, v.fullName, a.clinic.id, a.appointmentDate, a.status, a.notes,
+                    o.id, o.fullName, o.phone, a.type)
+                FROM Appointment a
+                JOIN a.pet p
+                LEFT JOIN p.owner o
+                JOIN a.vet v
+            """;
+
+    @Query(DTO_SELECT + """
+                WHERE v.id = :vetId
+                  AND a.appointmentDate BETWEEN :from AND :to
+            """)
+    List<AppointmentDTO> findVetCalendar(@Param("vetId") UUID vetId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
 
-    List<Appointment> findByClinic_IdAndAppointmentDateBetween(UUID clinicId, OffsetDateTime from, OffsetDateTime to);
+    @Query(DTO_SELECT + """
+                WHERE a.clinic.id = :clinicId
+                  AND a.appointmentDate BETWEEN :from AND :to
+            """)
+    List<AppointmentDTO> findClinicCalendar(@Param("clinicId") UUID clinicId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
 
+    @Query(DTO_SELECT + """
+                WHERE o.id = :ownerId
+                  AND a.appointmentDate BETWEEN :from AND :to
+            """)
+    List<AppointmentDTO> findOwnerCalendar(@Param("ownerId") UUID ownerId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
 
-    @Query("""
-               select a from Appointment a
-               where a.pet.owner.id = :ownerId
-                 and a.appointmentDate between :from and :to
+    @Query(DTO_SELECT + """
+                WHERE a.id IN :ids
             """)
-    List<Appointment> findForOwner(UUID ownerId, OffsetDateTime from, OffsetDateTime to);
+    List<AppointmentDTO> findDtosByIds(@Param("ids") Collection<UUID> ids);
 
     List<Appointment> findByPet_Id(UUID petId);
 
     java.util.Optional<Appointment> findByVet_IdAndAppointmentDate(UUID vetId, OffsetDateTime appointmentDate);
 
+    boolean existsByVet_IdAndAppointmentDate(UUID vetId, OffsetDateTime appointmentDate);
+
+    @Query("""
+                SELECT new org.example.backend.dto.BookedSlotDTO(a.vet.id, a.appointmentDate, a.type)
+                FROM Appointment a
+                WHERE a.vet.id IN :vetIds
+                  AND a.appointmentDate BETWEEN :from AND :to
+            """)
+    List<org.example.backend.dto.BookedSlotDTO> findBookedSlotsForVets(@Param("vetIds") java.util.Collection<UUID> vetIds, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
     @Query(value = """
-                SELECT a.* FROM dev.appointments a
+                SELECT a.id FROM dev.appointments a
                 JOIN dev.pets p ON a.pet_id = p.id
                 JOIN dev.users u ON p.owner_id = u.id
                 WHERE a.clinic_id = :clinicId
                   AND (CAST(a.appointment_date AS date) BETWEEN :from AND :to)
-                  AND (:petName IS NULL OR TRIM(p.name) ILIKE CONCAT('%', TRIM(:petName), '%'))
-                  AND (:petOwnerName IS NULL OR TRIM(u.full_name) ILIKE CONCAT('%', TRIM(:petOwnerName), '%'))
+                  AND (:petName IS NULL OR p.search_name LIKE CONCAT('%', :petName, '%'))
+                  AND (:petOwnerName IS NULL OR u.search_full_name LIKE CONCAT('%', :petOwnerName, '%'))
                 ORDER BY a.appointment_date DESC
             """, countQuery = """
                 SELECT count(*) FROM dev.appointments a
@@ -48,47 +81,113 @@ public interface AppointmentRepository extends JpaRepository<Appointment, UUID>
                 JOIN dev.users u ON p.owner_id = u.id
                 WHERE a.clinic_id = :clinicId
                   AND (CAST(a.appointment_date AS date) BETWEEN :from AND :to)
-                  AND (:petName IS NULL OR TRIM(p.name) ILIKE CONCAT('%', TRIM(:petName), '%'))
-                  AND (:petOwnerName IS NULL OR TRIM(u.full_name) ILIKE CONCAT('%', TRIM(:petOwnerName), '%'))
+                  AND (:petName IS NULL OR p.search_name LIKE CONCAT('%', :petName, '%'))
+                  AND (:petOwnerName IS NULL OR u.search_full_name LIKE CONCAT('%', :petOwnerName, '%'))
             """, nativeQuery = true)
-    Page<Appointment> searchPastAppointments(@Param("clinicId") UUID clinicId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to, @Param("petName") String petName, @Param("petOwnerName") String petOwnerName, Pageable pageable);
+    Page<UUID> searchPastAppointmentIds(@Param("clinicId") UUID clinicId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to, @Param("petName") String petName, @Param("petOwnerName") String petOwnerName, Pageable pageable);
 
     /* Paginated past appointments for an owner with optional pet name and pet owner name filter */
     @Query(value = """
-                SELECT a.* FROM dev.appointments a
+                SELECT a.id FROM dev.appointments a
                 JOIN dev.pets p ON a.pet_id = p.id
                 JOIN dev.users u ON p.owner_id = u.id
                 WHERE p.owner_id = :ownerId
-                  AND (:petName IS NULL OR TRIM(p.name) ILIKE CONCAT('%', TRIM(:petName), '%'))
-                  AND (:petOwnerName IS NULL OR TRIM(u.full_name) ILIKE CONCAT('%', TRIM(:petOwnerName), '%'))
+                  AND (:petName IS NULL OR p.search_name LIKE CONCAT('%', :petName, '%'))
+                  AND (:petOwnerName IS NULL OR u.search_full_name LIKE CONCAT('%', :petOwnerName, '%'))
                 ORDER BY a.appointment_date DESC
             """, countQuery = """
                 SELECT count(*) FROM dev.appointments a
                 JOIN dev.pets p ON a.pet_id = p.id
                 JOIN dev.users u ON p.owner_id = u.id
                 WHERE p.owner_id = :ownerId
-                  AND (:petName IS NULL OR TRIM(p.name) ILIKE CONCAT('%', TRIM(:petName), '%'))
-                  AND (:petOwnerName IS NULL OR TRIM(u.full_name) ILIKE CONCAT('%', TRIM(:petOwnerName), '%'))
+                  AND (:petName IS NULL OR p.search_name LIKE CONCAT('%', :petName, '%'))
+                  AND (:petOwnerName IS NULL OR u.search_full_name LIKE CONCAT('%', :petOwnerName, '%'))
             """, nativeQuery = true)
-    Page<Appointment> searchPastAppointmentsByOwner(@Param("ownerId") UUID ownerId, @Param("petName") String petName, @Param("petOwnerName") String petOwnerName, Pageable pageable);
+    Page<UUID> searchPastAppointmentIdsByOwner(@Param("ownerId") UUID ownerId, @Param("petName") String petName, @Param("petOwnerName") String petOwnerName, Pageable pageable);
 
     @Query(value = """
-                SELECT a.* FROM dev.appointments a
+                SELECT a.id FROM dev.appointments a
                 JOIN dev.pets p ON a.pet_id = p.id
                 JOIN dev.users u ON p.owner_id = u.id
                 WHERE a.vet_id = :vetId
-                  AND (:petName IS NULL OR TRIM(p.name) ILIKE CONCAT('%', TRIM(:petName), '%'))
-                  AND (:petOwnerName IS NULL OR TRIM(u.full_name) ILIKE CONCAT('%', TRIM(:petOwnerName), '%'))
+                  AND (:petName IS NULL OR p.search_name LIKE CONCAT('%', :petName, '%'))
+                  AND (:petOwnerName IS NULL OR u.search_full_name LIKE CONCAT('%', :petOwnerName, '%'))
                 ORDER BY a.appointment_date DESC
             """, countQuery = """
                 SELECT count(*) FROM dev.appointments a
                 JOIN dev.pets p ON a.pet_id = p.id
                 JOIN dev.users u ON p.owner_id = u.id
                 WHERE a.vet_id = :vetId
-                  AND (:petName IS NULL OR TRIM(p.name) ILIKE CONCAT('%', TRIM(:petName), '%'))
-                  AND (:petOwnerName IS NULL OR TRIM(u.full_name) ILIKE CONCAT('%', TRIM(:petOwnerName), '%'))
+                  AND (:petName IS NULL OR p.search_name LIKE CONCAT('%', :petName, '%'))
+                  AND (:petOwnerName IS NULL OR u.search_full_name LIKE CONCAT('%', :petOwnerName, '%'))
+            """, nativeQuery = true)
+    Page<UUID> searchPastAppointmentIdsByVet(@Param("vetId") UUID vetId, @Param("petName") String petName, @Param("petOwnerName") String petOwnerName, Pageable pageable);
+
+    /* Typeahead over a clinic's history ranked by trigram similarity; needs pg_trgm, see TrigramSearchSupport */
+    @Query(value = """
+                SELECT a.id FROM dev.appointments a
+                JOIN dev.pets p ON a.pet_id = p.id
+                JOIN dev.users u ON p.owner_id = u.id
+                WHERE a.clinic_id = :clinicId
+                  AND (p.search_name LIKE CONCAT('%', :term, '%') OR u.search_full_name LIKE CONCAT('%', :term, '%')
+                       OR p.search_name % :term OR u.search_full_name % :term)
+                ORDER BY GREATEST(similarity(p.search_name, :term), similarity(u.search_full_name, :term)) DESC,
+                         a.appointment_date DESC
+                LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> rankClinicAppointmentIdsByName(@Param("clinicId") UUID clinicId, @Param("term") String term, @Param("limit") int limit);
+
+    /* Portable fallback for the typeahead when trigram search is unavailable, no ranking beyond recency */
+    @Query("""
+                SELECT a.id FROM Appointment a
+                JOIN a.pet p
+                JOIN p.owner o
+                WHERE a.clinic.id = :clinicId
+                  AND (p.searchName LIKE CONCAT('%', :term, '%') OR o.searchFullName LIKE CONCAT('%', :term, '%'))
+                ORDER BY a.appointmentDate DESC
+            """)
+    List<UUID> matchClinicAppointmentIdsByName(@Param("clinicId") UUID clinicId, @Param("term") String term, Pageable pageable);
+
+    /* Keyset variants of the searches above: seek past (cursorDate, cursorId) instead of OFFSET, no count */
+    @Query(value = """
+                SELECT a.id FROM dev.appointments a
+                JOIN dev.pets p ON a.pet_id = p.id
+                JOIN dev.users u ON p.owner_id = u.id
+                WHERE a.clinic_id = :clinicId
+                  AND (CAST(a.appointment_date AS date) BETWEEN :from AND :to)
+                  AND (:petName IS NULL OR p.search_name LIKE CONCAT('%', :petName, '%'))
+                  AND (:petOwnerName IS NULL OR u.search_full_name LIKE CONCAT('%', :petOwnerName, '%'))
+                  AND (a.appointment_date, a.id) < (:cursorDate, :cursorId)
+                ORDER BY a.appointment_date DESC, a.id DESC
+                LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> seekPastAppointmentIds(@Param("clinicId") UUID clinicId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to, @Param("petName") String petName, @Param("petOwnerName") String petOwnerName, @Param("cursorDate") OffsetDateTime cursorDate, @Param("cursorId") UUID cursorId, @Param("limit") int limit);
+
+    @Query(value = """
+                SELECT a.id FROM dev.appointments a
+                JOIN dev.pets p ON a.pet_id = p.id
+                JOIN dev.users u ON p.owner_id = u.id
+                WHERE p.owner_id = :ownerId
+                  AND (:petName IS NULL OR p.search_name LIKE CONCAT('%', :petName, '%'))
+                  AND (:petOwnerName IS NULL OR u.search_full_name LIKE CONCAT('%', :petOwnerName, '%'))
+                  AND (a.appointment_date, a.id) < (:cursorDate, :cursorId)
+                ORDER BY a.appointment_date DESC, a.id DESC
+                LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> seekPastAppointmentIdsByOwner(@Param("ownerId") UUID ownerId, @Param("petName") String petName, @Param("petOwnerName") String petOwnerName, @Param("cursorDate") OffsetDateTime cursorDate, @Param("cursorId") UUID cursorId, @Param("limit") int limit);
+
+    @Query(value = """
+                SELECT a.id FROM dev.appointments a
+                JOIN dev.pets p ON a.pet_id = p.id
+                JOIN dev.users u ON p.owner_id = u.id
+                WHERE a.vet_id = :vetId
+                  AND (:petName IS NULL OR p.search_name LIKE CONCAT('%', :petName, '%'))
+                  AND (:petOwnerName IS NULL OR u.search_full_name LIKE CONCAT('%', :petOwnerName, '%'))
+                  AND (a.appointment_date, a.id) < (:cursorDate, :cursorId)
+                ORDER BY a.appointment_date DESC, a.id DESC
+                LIMIT :limit
             """, nativeQuery = true)
-    Page<Appointment> searchPastAppointmentsByVet(@Param("vetId") UUID vetId, @Param("petName") String petName, @Param("petOwnerName") String petOwnerName, Pageable pageable);
+    List<UUID> seekPastAppointmentIdsByVet(@Param("vetId") UUID vetId, @Param("petName") String petName, @Param("petOwnerName") String petOwnerName, @Param("cursorDate") OffsetDateTime cursorDate, @Param("cursorId") UUID cursorId, @Param("limit") int limit);
 
     @Query("""
                 SELECT DISTINCT a.pet FROM Appointment a
@@ -0,0 +1,49 @@
+package org.example.backend.repository;
+
+import org.example.backend.data.AppointmentSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AppointmentSeriesRepository extends JpaRepository<AppointmentSeries, UUID> {
+
+    /* Series that can have an occurrence inside [from, to]; count-bounded ones are trimmed during expansion */
+    @Query("""
+                SELECT s FROM AppointmentSeries s
+                JOIN FETCH s.pet p
+                LEFT JOIN FETCH p.owner
+                JOIN FETCH s.vet
+                WHERE s.vet.id = :vetId
+                  AND s.active = true
+                  AND s.startsAt <= :to
+                  AND (s.until IS NULL OR s.until >= :from)
+            """)
+    List<AppointmentSeries> findActiveForVet(@Param("vetId") UUID vetId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    @Query("""
+                SELECT s FROM AppointmentSeries s
+                JOIN FETCH s.pet p
+                LEFT JOIN FETCH p.owner
+                JOIN FETCH s.vet
+                WHERE s.clinic.id = :clinicId
+                  AND s.active = true
+                  AND s.startsAt <= :to
+                  AND (s.until IS NULL OR s.until >= :from)
+            """)
+    List<AppointmentSeries> findActiveForClinic(@Param("clinicId") UUID clinicId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM AppointmentSeries s WHERE s.pet.id = :petId")
+    void deleteByPetId(@Param("petId") UUID petId);
+
+    @Modifying
+    @Query("DELETE FROM AppointmentSeries s WHERE s.clinic.id = :clinicId")
+    void deleteByClinicId(@Param("clinicId") UUID clinicId);
+}
@@ -0,0 +1,9 @@
+package org.example.backend.repository;
+
+import org.example.backend.data.EmailDigestPreference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailDigestPreferenceRepository extends JpaRepository<EmailDigestPreference, String> {
+}
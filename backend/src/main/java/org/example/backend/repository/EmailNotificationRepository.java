@@ -2,10 +2,65 @@ package org.example.backend.repository;
 
 import org.example.backend.data.EmailNotification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface EmailNotificationRepository extends JpaRepository<EmailNotification, UUID> {
-} 
\ No newline at end of file
+
+    /* Due rows, including SENDING rows whose lease ran out; rows locked by another dispatcher are skipped */
+    @Query(value = """
+                SELECT * FROM dev.email_notifications
+                WHERE status IN ('PENDING', 'SENDING')
+                  AND next_attempt_at <= :now
+                ORDER BY next_attempt_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailNotification> claimDue(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    /*
+     * All DIGEST events of up to recipientLimit recipients whose window has closed, grouped by recipient. The limit
+     * applies to recipients rather than rows, so one recipient's events are never split across two digests.
+     */
+    @Query(value = """
+                SELECT * FROM dev.email_notifications
+                WHERE status = 'DIGEST'
+                  AND recipient_email IN (
+                      SELECT DISTINCT recipient_email FROM dev.email_notifications
+                      WHERE status = 'DIGEST' AND next_attempt_at <= :now
+                      ORDER BY recipient_email
+                      LIMIT :recipientLimit)
+                ORDER BY recipient_email, created_at
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailNotification> claimDueDigestEvents(@Param("now") OffsetDateTime now, @Param("recipientLimit") int recipientLimit);
+
+    /* Bounded retention delete over the sent_at / created_at indexes; commits per batch like the lock sweep */
+    @Modifying
+    @Transactional
+    @Query(value = """
+                DELETE FROM dev.email_notifications
+                WHERE id IN (
+                    SELECT id FROM dev.email_notifications
+                    WHERE status IN ('SENT', 'FAILED')
+                      AND (sent_at < :cutoff OR (sent_at IS NULL AND created_at < :cutoff))
+                    LIMIT :batchSize
+                )
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") OffsetDateTime cutoff, @Param("batchSize") int batchSize);
+
+    java.util.Optional<EmailNotification> findFirstByRecipientEmailAndStatusOrderByCreatedAtAsc(String recipientEmail, String status);
+
+    @Modifying
+    @Query("UPDATE EmailNotification e SET e.status = 'SENT', e.sentAt = :sentAt, e.lastError = null WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<UUID> ids, @Param("sentAt") OffsetDateTime sentAt);
+}
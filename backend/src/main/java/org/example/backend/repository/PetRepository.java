@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,4 +24,15 @@ public interface PetRepository extends JpaRepository<Pet, UUID> {
     @Modifying
     @Query("DELETE FROM Pet p WHERE p.id = :petId")
     void deletePetById(@Param("petId") UUID petId);
+
+    /* Only applies while the avatar is still the one the variants were made from */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Pet p SET p.imageVariantSizes = :sizes WHERE p.id = :petId AND p.imageUrl = :imageUrl")
+    int updateImageVariantSizes(@Param("petId") UUID petId, @Param("imageUrl") String imageUrl, @Param("sizes") String sizes);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Pet p SET p.imageVariantSizes = NULL WHERE p.id = :petId")
+    int clearImageVariantSizes(@Param("petId") UUID petId);
 }
\ No newline at end of file
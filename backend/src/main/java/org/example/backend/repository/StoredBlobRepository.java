@@ -0,0 +1,63 @@
+package org.example.backend.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.backend.data.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    /* Returns 1 when this call created the row; a concurrent insert of the same hash waits for the first to finish */
+    @Modifying
+    @Query(value = """
+            INSERT INTO dev.stored_blobs (sha256, object_name, size_bytes, content_type, ref_count, created_at)
+            VALUES (:sha256, :objectName, :sizeBytes, :contentType, :refs, :createdAt)
+            ON CONFLICT (sha256) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("sha256") String sha256,
+                       @Param("objectName") String objectName,
+                       @Param("sizeBytes") long sizeBytes,
+                       @Param("contentType") String contentType,
+                       @Param("refs") int refs,
+                       @Param("createdAt") OffsetDateTime createdAt);
+
+    /*
+     * Records staged content as a tombstone before its object is uploaded, so an upload that is never referenced is
+     * still swept. An existing tombstone gets a fresh orphaned_at; a referenced row is left alone.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO dev.stored_blobs (sha256, object_name, size_bytes, content_type, ref_count, created_at, orphaned_at)
+            VALUES (:sha256, :objectName, :sizeBytes, :contentType, 0, :now, :now)
+            ON CONFLICT (sha256) DO UPDATE SET orphaned_at = EXCLUDED.orphaned_at
+            WHERE dev.stored_blobs.ref_count <= 0
+            """, nativeQuery = true)
+    void upsertTombstone(@Param("sha256") String sha256,
+                         @Param("objectName") String objectName,
+                         @Param("sizeBytes") long sizeBytes,
+                         @Param("contentType") String contentType,
+                         @Param("now") OffsetDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.sha256 = :sha256")
+    Optional<StoredBlob> findForUpdate(@Param("sha256") String sha256);
+
+    /* Rows being re-referenced right now are skipped and looked at again on the next sweep */
+    @Query(value = """
+            SELECT * FROM dev.stored_blobs
+            WHERE ref_count <= 0 AND orphaned_at < :cutoff
+            ORDER BY orphaned_at
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<StoredBlob> lockCollectable(@Param("cutoff") OffsetDateTime cutoff, @Param("batchSize") int batchSize);
+}
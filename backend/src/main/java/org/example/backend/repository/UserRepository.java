@@ -2,7 +2,11 @@ package org.example.backend.repository;
 
 import org.example.backend.data.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,4 +22,36 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
 
     List<User> findByFullNameContainingIgnoreCaseOrEmailContainingIgnoreCase(String fullName, String email);
+
+    /*
+     * Resolves a login email against both account tables through their unique email indexes. The same email can be
+     * registered as a user and as a vet, so this returns up to one row per table, users first.
+     */
+    @Query(value = """
+            SELECT id, password, principal_type AS principalType, role, active
+            FROM (SELECT u.id, u.password, 'USER' AS principal_type, u.role, u.is_active AS active
+                  FROM dev.users u WHERE u.email = :email
+                  UNION ALL
+                  SELECT v.id, v.password, 'VET' AS principal_type, 'VET' AS role, TRUE AS active
+                  FROM dev.vets v WHERE v.email = :email) p
+            ORDER BY principal_type
+            """, nativeQuery = true)
+    List<LoginPrincipal> findLoginPrincipals(@Param("email") String email);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
+
+    interface LoginPrincipal {
+        UUID getId();
+
+        String getPassword();
+
+        String getPrincipalType();
+
+        String getRole();
+
+        boolean getActive();
+    }
 }
@@ -2,9 +2,12 @@ package org.example.backend.repository;
 
 import org.example.backend.data.VetClinicMembership;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -12,6 +15,9 @@ public interface VetClinicMembershipRepository extends JpaRepository<VetClinicMe
 
     List<VetClinicMembership> findByClinic_Id(UUID clinicId);
 
+    @Query("SELECT m.vet.id FROM VetClinicMembership m WHERE m.clinic.id = :clinicId")
+    Set<UUID> findVetIdsByClinicId(@Param("clinicId") UUID clinicId);
+
     List<VetClinicMembership> findByVet_Id(UUID vetId);
 
     boolean existsByVet_IdAndClinic_Id(UUID vetId, UUID clinicId);
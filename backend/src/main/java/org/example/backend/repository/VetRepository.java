@@ -3,9 +3,11 @@ package org.example.backend.repository;
 import org.example.backend.data.Vet;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +21,11 @@ public interface VetRepository extends JpaRepository<Vet, UUID> {
 
     boolean existsByEmail(String email);
 
+    @Modifying
+    @Transactional
+    @Query("UPDATE Vet v SET v.password = :password WHERE v.id = :id")
+    int updatePassword(@Param("id") UUID id, @Param("password") String password);
+
     @Query("""
                select v
                from   Vet v
@@ -1,11 +1,14 @@
 package org.example.backend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.example.backend.cache.PrincipalCache;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,15 +16,23 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final List<UserDetailsService> services;
+    private final CustomUserDetailsService owners;
+    private final VetDetailsService vets;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList revocationList;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService owners, VetDetailsService vets) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService owners, VetDetailsService vets, PrincipalCache principalCache, TokenRevocationList revocationList) {
         this.jwtUtil = jwtUtil;
-        this.services = List.of(owners, vets);
+        this.owners = owners;
+        this.vets = vets;
+        this.principalCache = principalCache;
+        this.revocationList = revocationList;
     }
 
     @Override
@@ -29,35 +40,64 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String token = extractToken(req);
-            if (token != null && jwtUtil.validateToken(token)) {
-                String userId = jwtUtil.extractUserId(token);
-
-                for (UserDetailsService uds : services) {
-                    try {
-                        UserDetails ud;
-                        if (uds instanceof CustomUserDetailsService) {
-                            ud = ((CustomUserDetailsService) uds).loadUserById(userId);
-                        } else if (uds instanceof VetDetailsService) {
-                            ud = ((VetDetailsService) uds).loadVetById(userId);
-                        } else {
-                            continue;
-                        }
-                        if (jwtUtil.validateToken(token, ud) && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(ud, null, ud.getAuthorities());
-                            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
-                            SecurityContextHolder.getContext().setAuthentication(auth);
-                            break;
-                        }
-                    } catch (UsernameNotFoundException ignore) { /* try next */ }
+            Claims claims = token == null ? null : jwtUtil.parseClaims(token);
+            if (claims != null && revocationList.isRevoked(claims.getId())) {
+                claims = null;
+            }
+            if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails ud = principalOf(claims);
+                if (ud != null) {
+                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(ud, null, ud.getAuthorities());
+                    auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(req));
+                    SecurityContextHolder.getContext().setAuthentication(auth);
                 }
             }
+        } catch (UsernameNotFoundException ignore) {
+            /* token for an account that no longer exists: leave the request unauthenticated */
         } catch (Exception e) {
             logger.error("Cannot set user authentication", e);
         }
         chain.doFilter(req, res);
     }
 
+    /*
+     * Tokens with typ/roles claims authenticate from the claims. The account is still checked against the database,
+     * but only once per principal cache period (security.jwt.revalidate-seconds): a locked account rejects the token,
+     * and when the roles changed the stored ones win, so a demoted user loses access and a promoted one gains it
+     * without logging in again. Older subject-only tokens fall back to the stored principal.
+     */
+    private UserDetails principalOf(Claims claims) {
+        String userId = claims.getSubject();
+        String type = jwtUtil.principalType(claims);
+        List<String> roles = jwtUtil.roles(claims);
+        if (type == null || roles == null) {
+            return principalCache.get(userId, this::loadPrincipal);
+        }
+
+        UserDetails stored = principalCache.get(userId, id -> JwtUtil.TYPE_VET.equals(type) ? vets.loadVetById(id) : owners.loadUserById(id));
+        if (!stored.isAccountNonLocked()) {
+            logger.info("Rejected token for locked account " + userId);
+            return null;
+        }
+        Set<String> storedRoles = stored.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+        if (!storedRoles.equals(Set.copyOf(roles))) {
+            logger.info("Roles in token for " + userId + " are stale " + roles + ", using stored roles " + storedRoles);
+            roles = List.copyOf(storedRoles);
+        }
+        return User.withUsername(userId)
+                .password("")
+                .authorities(roles.toArray(String[]::new))
+                .build();
+    }
+
+    private UserDetails loadPrincipal(String userId) {
+        try {
+            return owners.loadUserById(userId);
+        } catch (UsernameNotFoundException e) {
+            return vets.loadVetById(userId);
+        }
+    }
+
     private String extractToken(HttpServletRequest req) {
         String h = req.getHeader("Authorization");
         if (h != null && h.startsWith("Bearer ")) return h.substring(7);
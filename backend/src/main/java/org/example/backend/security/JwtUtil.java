@@ -1,19 +1,32 @@
 package org.example.backend.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
+    public static final String TYPE_USER = "USER";
+    public static final String TYPE_VET = "VET";
+    private static final String TYPE_CLAIM = "typ";
+    private static final String ROLES_CLAIM = "roles";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -21,42 +34,87 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expiration;
 
+    /* Lifetime of access tokens in seconds; short, because the refresh cookie carries the session */
+    @Getter
+    @Value("${jwt.access-expiration:900}")
+    private long accessExpiration;
+
+    /* Both are immutable and thread-safe, so they are built once instead of per call */
+    private SecretKey key;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    }
+
     public String generateToken(Authentication authentication, long expirySeconds) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        return generateToken(userDetails.getUsername(), expirySeconds);
+        return generateToken((UserDetails) authentication.getPrincipal(), expirySeconds);
+    }
+
+    public String generateToken(UserDetails userDetails, long expirySeconds) {
+        List<String> roles = userDetails.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        String type = roles.contains("ROLE_VET") ? TYPE_VET : TYPE_USER;
+        return generateToken(userDetails.getUsername(), type, roles, expirySeconds);
+    }
+
+    /* Re-issues a token for the same principal, carrying its type and roles over */
+    public String generateToken(Claims source, long expirySeconds) {
+        return generateToken(source.getSubject(), principalType(source), roles(source), expirySeconds);
     }
 
     public String generateToken(String userId, long expirySeconds) {
+        return generateToken(userId, null, null, expirySeconds);
+    }
+
+    private String generateToken(String userId, String type, List<String> roles, long expirySeconds) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirySeconds * 1000);
 
-        return Jwts.builder().setSubject(userId).setIssuedAt(now).setExpiration(expiry).signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))).compact();
+        JwtBuilder builder = Jwts.builder().setId(UUID.randomUUID().toString()).setSubject(userId).setIssuedAt(now).setExpiration(expiry);
+        if (type != null && roles != null) {
+            builder.claim(TYPE_CLAIM, type).claim(ROLES_CLAIM, roles);
+        }
+        return builder.signWith(key).compact();
     }
 
-    public String extractUserId(String token) {
+    /* USER or VET; null for tokens issued before the claim existed */
+    public String principalType(Claims claims) {
+        return claims.get(TYPE_CLAIM, String.class);
+    }
+
+    public List<String> roles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof List<?> list)) return null;
+        return list.stream().map(String::valueOf).toList();
+    }
+
+    /* Verifies signature and expiry once; null when the token is not valid */
+    public Claims parseClaims(String token) {
         try {
-            return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))).build().parseClaimsJws(token).getBody().getSubject();
+            return parser.parseClaimsJws(token).getBody();
         } catch (Exception e) {
             return null;
         }
     }
 
+    public String extractUserId(String token) {
+        Claims claims = parseClaims(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
     @Deprecated
     public String extractUsername(String token) {
         return extractUserId(token);
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return parseClaims(token) != null;
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
         final String userId = extractUserId(token);
-        return userId != null && userId.equals(userDetails.getUsername()) && validateToken(token);
+        return userId != null && userId.equals(userDetails.getUsername());
     }
 }
@@ -0,0 +1,173 @@
+package org.example.backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.repository.VetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Email/password login for both account types. The principal is resolved with one lookup across users and vets,
+ * and the BCrypt comparison runs on the bounded passwordHashExecutor so hashing cannot occupy every request thread.
+ * Hashes weaker than the configured strength are re-encoded after a successful login. When an email belongs to both a
+ * user and a vet, the account type passed as the token's details (see VET_LOGIN) is tried first and the other one
+ * after it, the way separate providers used to fall through to each other.
+ */
+@Component
+public class LoginAuthenticationProvider implements AuthenticationProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginAuthenticationProvider.class);
+
+    /* Details of a login request coming through /auth/vet/login */
+    public static final String VET_LOGIN = JwtUtil.TYPE_VET;
+
+    private final UserRepository userRepository;
+    private final VetRepository vetRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor hashExecutor;
+    private final long verifyTimeoutMs;
+    private final Timer verifyTimer;
+    private final Counter rejected;
+    private final Counter rehashed;
+
+    /* Compared against when the email is unknown, so a miss costs the same as a wrong password */
+    private volatile String unknownAccountHash;
+
+    public LoginAuthenticationProvider(UserRepository userRepository,
+                                       VetRepository vetRepository,
+                                       PasswordEncoder passwordEncoder,
+                                       @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor hashExecutor,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${security.bcrypt.verify-timeout-ms:10000}") long verifyTimeoutMs) {
+        this.userRepository = userRepository;
+        this.vetRepository = vetRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.hashExecutor = hashExecutor;
+        this.verifyTimeoutMs = verifyTimeoutMs;
+        this.verifyTimer = meterRegistry.timer("security.login.verify");
+        this.rejected = meterRegistry.counter("security.login.rejected");
+        this.rehashed = meterRegistry.counter("security.login.rehashed");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String email = authentication.getName();
+        String password = authentication.getCredentials() == null ? "" : authentication.getCredentials().toString();
+
+        List<UserRepository.LoginPrincipal> candidates = email == null ? List.of() : userRepository.findLoginPrincipals(email);
+        if (candidates.isEmpty()) {
+            verify(password, unknownAccountHash());
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (candidates.size() > 1 && VET_LOGIN.equals(authentication.getDetails())) {
+            candidates = candidates.reversed();
+        }
+
+        boolean locked = false;
+        for (UserRepository.LoginPrincipal principal : candidates) {
+            if (!principal.getActive()) {
+                locked = true;
+                continue;
+            }
+            if (verify(password, principal.getPassword())) {
+                if (passwordEncoder.upgradeEncoding(principal.getPassword())) {
+                    rehash(principal, password);
+                }
+                UserDetails details = toUserDetails(principal);
+                return UsernamePasswordAuthenticationToken.authenticated(details, null, details.getAuthorities());
+            }
+        }
+        if (locked) {
+            throw new LockedException("User account is locked");
+        }
+        throw new BadCredentialsException("Bad credentials");
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    private boolean verify(String password, String hash) {
+        Future<Boolean> match;
+        try {
+            match = hashExecutor.submit(() -> verifyTimer.record(() -> passwordEncoder.matches(password, hash)));
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            throw new AuthenticationServiceException("Sign-in is busy, please retry");
+        }
+        try {
+            return match.get(verifyTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            match.cancel(true);
+            rejected.increment();
+            throw new AuthenticationServiceException("Sign-in is busy, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Sign-in was interrupted");
+        } catch (ExecutionException e) {
+            throw new AuthenticationServiceException("Password verification failed", e.getCause());
+        }
+    }
+
+    /* Runs on the hash pool as well; a failed upgrade is retried on the next login */
+    private void rehash(UserRepository.LoginPrincipal principal, String password) {
+        try {
+            hashExecutor.execute(() -> {
+                String upgraded = passwordEncoder.encode(password);
+                if (JwtUtil.TYPE_VET.equals(principal.getPrincipalType())) {
+                    vetRepository.updatePassword(principal.getId(), upgraded);
+                } else {
+                    userRepository.updatePassword(principal.getId(), upgraded);
+                }
+                rehashed.increment();
+            });
+        } catch (TaskRejectedException e) {
+            log.debug("Skipped password rehash for {}: hash pool is full", principal.getId());
+        }
+    }
+
+    private String unknownAccountHash() {
+        String hash = unknownAccountHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode("unknown-account-placeholder");
+            unknownAccountHash = hash;
+        }
+        return hash;
+    }
+
+    /* Same authorities as CustomUserDetailsService and VetDetailsService build for the claims in the JWT */
+    private static UserDetails toUserDetails(UserRepository.LoginPrincipal principal) {
+        List<SimpleGrantedAuthority> authorities = JwtUtil.TYPE_VET.equals(principal.getPrincipalType())
+                ? List.of(new SimpleGrantedAuthority("ROLE_VET"))
+                : List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole()), new SimpleGrantedAuthority("ROLE_USER"));
+        return User.withUsername(principal.getId().toString())
+                .password(principal.getPassword())
+                .authorities(authorities)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.backend.security;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.data.RefreshToken;
+import org.example.backend.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/* Opaque, single-use refresh tokens; each use hands out the next token of the same family */
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshRepo;
+
+    @Value("${jwt.refresh-reuse-grace-seconds:10}")
+    private long reuseGraceSeconds;
+
+    public record Issued(String token, UUID subject, String principalType, OffsetDateTime expiresAt) {
+    }
+
+    @Transactional
+    public Issued issue(UUID subject, String principalType, long lifetimeSeconds) {
+        return issue(UUID.randomUUID(), subject, principalType, OffsetDateTime.now().plusSeconds(lifetimeSeconds));
+    }
+
+    /*
+     * Presenting a token that was already rotated or revoked means it leaked, so the whole family is revoked and the
+     * caller has to log in again. The row lock makes concurrent presentations of one token queue up; one that arrives
+     * within the grace period after its rotation is a client racing itself (two tabs, a retried request) and is only
+     * refused, since the winner already holds the next token. noRollbackFor keeps a revocation committed.
+     */
+    @Transactional(noRollbackFor = SecurityException.class)
+    public Issued rotate(String rawToken) {
+        RefreshToken current = refreshRepo.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(() -> new SecurityException("Unknown refresh token."));
+        OffsetDateTime now = OffsetDateTime.now();
+        if (current.getRevokedAt() == null && current.getRotatedAt() != null
+                && current.getRotatedAt().plusSeconds(reuseGraceSeconds).isAfter(now)) {
+            throw new SecurityException("Refresh token was just rotated.");
+        }
+        if (current.getRevokedAt() != null || current.getRotatedAt() != null) {
+            refreshRepo.revokeFamily(current.getFamilyId(), now);
+            throw new SecurityException("Refresh token reuse detected; please log in again.");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new SecurityException("Refresh token expired.");
+        }
+        current.setRotatedAt(now);
+        refreshRepo.save(current);
+        return issue(current.getFamilyId(), current.getSubject(), current.getPrincipalType(), current.getExpiresAt());
+    }
+
+    @Transactional
+    public void revokeFamilyOf(String rawToken) {
+        refreshRepo.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshRepo.revokeFamily(token.getFamilyId(), OffsetDateTime.now()));
+    }
+
+    /* Rotation keeps the family's original expiry, so a stolen chain cannot be extended forever */
+    private Issued issue(UUID familyId, UUID subject, String principalType, OffsetDateTime expiresAt) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshRepo.save(RefreshToken.builder()
+                .tokenHash(hash(raw))
+                .familyId(familyId)
+                .subject(subject)
+                .principalType(principalType)
+                .expiresAt(expiresAt)
+                .build());
+        return new Issued(raw, subject, principalType, expiresAt);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.backend.security;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Immutable open-addressing set of jti UUIDs stored as raw long pairs. Lookups parse the jti string in place, so
+ * checking a token allocates nothing and costs one or two probes. Slot (0, 0) marks an empty slot; random UUIDs
+ * always have version bits set and can never be all zero.
+ */
+final class RevokedTokenSet {
+
+    static final RevokedTokenSet EMPTY = new RevokedTokenSet(java.util.List.of());
+
+    private final long[] slots;
+    private final int mask;
+    private final int size;
+
+    RevokedTokenSet(Collection<UUID> jtis) {
+        int capacity = capacityFor(jtis.size());
+        this.slots = new long[capacity * 2];
+        this.mask = capacity - 1;
+        int count = 0;
+        for (UUID jti : jtis) {
+            if (insert(jti.getMostSignificantBits(), jti.getLeastSignificantBits())) count++;
+        }
+        this.size = count;
+    }
+
+    private RevokedTokenSet(long[] slots, int size) {
+        this.slots = slots;
+        this.mask = slots.length / 2 - 1;
+        this.size = size;
+    }
+
+    /* A copy with jti added; the table is copied as is and only rehashed when it would pass half full */
+    RevokedTokenSet with(UUID jti) {
+        long msb = jti.getMostSignificantBits();
+        long lsb = jti.getLeastSignificantBits();
+        if (contains(msb, lsb)) return this;
+        int capacity = mask + 1;
+        if ((size + 1) * 2 <= capacity) {
+            RevokedTokenSet copy = new RevokedTokenSet(slots.clone(), size + 1);
+            copy.insert(msb, lsb);
+            return copy;
+        }
+        RevokedTokenSet grown = new RevokedTokenSet(new long[capacityFor(size + 1) * 2], size + 1);
+        for (int slot = 0; slot < capacity; slot++) {
+            if (slots[slot * 2] != 0 || slots[slot * 2 + 1] != 0) grown.insert(slots[slot * 2], slots[slot * 2 + 1]);
+        }
+        grown.insert(msb, lsb);
+        return grown;
+    }
+
+    private static int capacityFor(int size) {
+        return Integer.highestOneBit(Math.max(4, size * 2 - 1)) << 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(String jti) {
+        if (size == 0 || jti == null || jti.length() != 36) return false;
+        long msb = 0;
+        long lsb = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = jti.charAt(i);
+            if (c == '-') {
+                if (i != 8 && i != 13 && i != 18 && i != 23) return false;
+                continue;
+            }
+            int value = Character.digit(c, 16);
+            if (value < 0) return false;
+            if (digits < 16) msb = (msb << 4) | value;
+            else lsb = (lsb << 4) | value;
+            digits++;
+        }
+        return digits == 32 && contains(msb, lsb);
+    }
+
+    private boolean contains(long msb, long lsb) {
+        for (int slot = index(msb, lsb); ; slot = (slot + 1) & mask) {
+            long storedMsb = slots[slot * 2];
+            long storedLsb = slots[slot * 2 + 1];
+            if (storedMsb == 0 && storedLsb == 0) return false;
+            if (storedMsb == msb && storedLsb == lsb) return true;
+        }
+    }
+
+    private boolean insert(long msb, long lsb) {
+        for (int slot = index(msb, lsb); ; slot = (slot + 1) & mask) {
+            long storedMsb = slots[slot * 2];
+            long storedLsb = slots[slot * 2 + 1];
+            if (storedMsb == msb && storedLsb == lsb) return false;
+            if (storedMsb == 0 && storedLsb == 0) {
+                slots[slot * 2] = msb;
+                slots[slot * 2 + 1] = lsb;
+                return true;
+            }
+        }
+    }
+
+    private int index(long msb, long lsb) {
+        long h = msb ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
@@ -2,11 +2,12 @@
 package org.example.backend.security;
 
 import lombok.RequiredArgsConstructor;
+import org.example.backend.cache.PrincipalCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
-import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -29,6 +30,8 @@ public class SecurityConfig {
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService ownerDetailsService;
     private final VetDetailsService vetDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -40,7 +43,8 @@ public class SecurityConfig {
                                 "/", "/index.html",
                                 "/static/**", "/*.js", "/*.css",
                                 "/favicon.ico", "/assets/**",
-                                "/auth/**", "/users/create", "/vets/register", "/auth/logout")
+                                "/auth/**", "/users/create", "/vets/register", "/auth/logout",
+                                "/storage/local/**")
                         .permitAll()
                         .anyRequest().authenticated())
                 .sessionManagement(sm ->
@@ -51,27 +55,19 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /* Raising the strength is picked up by LoginAuthenticationProvider, which rehashes older hashes on login */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtUtil, ownerDetailsService, vetDetailsService);
+        return new JwtAuthenticationFilter(jwtUtil, ownerDetailsService, vetDetailsService, principalCache, tokenRevocationList);
     }
 
     @Bean
-    public AuthenticationManager authManager(PasswordEncoder passwordEncoder) {
-
-        DaoAuthenticationProvider userProv = new DaoAuthenticationProvider();
-        userProv.setUserDetailsService(ownerDetailsService);
-        userProv.setPasswordEncoder(passwordEncoder);
-
-        DaoAuthenticationProvider vetProv = new DaoAuthenticationProvider();
-        vetProv.setUserDetailsService(vetDetailsService);
-        vetProv.setPasswordEncoder(passwordEncoder);
-
-        return new ProviderManager(List.of(userProv, vetProv));
+    public AuthenticationManager authManager(LoginAuthenticationProvider loginProvider) {
+        return new ProviderManager(List.of(loginProvider));
     }
 }
@@ -0,0 +1,79 @@
+package org.example.backend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.data.RevokedToken;
+import org.example.backend.repository.RefreshTokenRepository;
+import org.example.backend.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Revoked access tokens, checked on every request against an in-memory snapshot of the revoked_tokens table.
+ * The snapshot is rebuilt on a timer, so other instances see a logout within security.revocation-sync-ms; the
+ * instance that revoked the token adds it to its own snapshot straight away instead of reloading the table.
+ * Local revocations are remembered until a snapshot query that started after them has run, because a query that
+ * was already under way when the revocation committed may not include it.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedRepo;
+    private final RefreshTokenRepository refreshRepo;
+    private final AtomicReference<RevokedTokenSet> revoked = new AtomicReference<>(RevokedTokenSet.EMPTY);
+    /* Locally revoked jti -> System.nanoTime() once its row was committed */
+    private final Map<UUID, Long> recentlyRevoked = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(RevokedTokenRepository revokedRepo, RefreshTokenRepository refreshRepo, MeterRegistry meterRegistry) {
+        this.revokedRepo = revokedRepo;
+        this.refreshRepo = refreshRepo;
+        meterRegistry.gauge("security.revoked.tokens", this, list -> list.revoked.get().size());
+    }
+
+    public boolean isRevoked(String jti) {
+        return revoked.get().contains(jti);
+    }
+
+    public void revoke(String jti, OffsetDateTime expiresAt) {
+        if (jti == null) return;
+        UUID id = UUID.fromString(jti);
+        revokedRepo.save(new RevokedToken(id, expiresAt));
+        recentlyRevoked.put(id, System.nanoTime());
+        revoked.updateAndGet(set -> set.with(id));
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation-sync-ms:15000}")
+    public void sync() {
+        long started = System.nanoTime();
+        List<UUID> jtis = new ArrayList<>(revokedRepo.findActiveJtis(OffsetDateTime.now()));
+        jtis.addAll(recentlyRevoked.keySet());
+        revoked.set(new RevokedTokenSet(jtis));
+        /* Re-applies a revoke that landed on the old set after the copy above; with() is a no-op otherwise */
+        for (UUID jti : recentlyRevoked.keySet()) {
+            revoked.updateAndGet(set -> set.with(jti));
+        }
+        recentlyRevoked.values().removeIf(revokedAt -> revokedAt - started < 0);
+    }
+
+    /* Expired entries no longer matter: the parser already rejects the tokens they refer to */
+    @Scheduled(cron = "${security.revocation-purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        OffsetDateTime now = OffsetDateTime.now();
+        int revokedPurged = revokedRepo.deleteExpired(now);
+        int refreshPurged = refreshRepo.deleteExpired(now);
+        if (revokedPurged + refreshPurged > 0) {
+            log.info("Purged {} revoked access tokens and {} refresh tokens", revokedPurged, refreshPurged);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.backend.service;
+
+import org.example.backend.dto.AppointmentDTO;
+import org.example.backend.dto.AppointmentSeriesDTO;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface AppointmentSeriesService {
+
+    AppointmentSeriesDTO create(AppointmentSeriesDTO dto, UUID requesterId);
+
+    void cancel(UUID seriesId, UUID requesterId);
+
+    AppointmentDTO confirmOccurrence(UUID seriesId, OffsetDateTime occurrence, UUID requesterId);
+
+    List<AppointmentDTO> vetOccurrences(UUID vetId, OffsetDateTime from, OffsetDateTime to, List<AppointmentDTO> booked);
+
+    List<AppointmentDTO> clinicOccurrences(UUID clinicId, OffsetDateTime from, OffsetDateTime to, List<AppointmentDTO> booked);
+}
@@ -2,6 +2,9 @@
 package org.example.backend.service;
 
 import org.example.backend.dto.AppointmentDTO;
+import org.example.backend.dto.AppointmentSliceDTO;
+import org.example.backend.dto.BatchBookingResultDTO;
+import org.example.backend.dto.ClinicAvailabilityDTO;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -10,6 +13,8 @@ import java.util.UUID;
 public interface AppointmentService {
     AppointmentDTO book(AppointmentDTO dto, UUID requesterId);
 
+    BatchBookingResultDTO bookBatch(UUID clinicId, List<AppointmentDTO> rows);
+
     void delete(UUID id, UUID requesterId);
 
     void cancel(UUID id, UUID requesterId);
@@ -24,6 +29,8 @@ public interface AppointmentService {
 
     List<AppointmentDTO> ownerCalendar(UUID ownerId, OffsetDateTime from, OffsetDateTime to);
 
+    ClinicAvailabilityDTO clinicAvailability(UUID clinicId, OffsetDateTime from, OffsetDateTime to, int slotMinutes);
+
     AppointmentDTO update(UUID id, AppointmentDTO dto, UUID requesterId);
 
     org.springframework.data.domain.Page<AppointmentDTO> clinicPastAppointments(UUID clinicId, OffsetDateTime from, OffsetDateTime to, String petName, String petOwnerName, org.springframework.data.domain.Pageable pageable);
@@ -32,6 +39,14 @@ public interface AppointmentService {
 
     org.springframework.data.domain.Page<AppointmentDTO> vetPastAppointments(UUID vetId, String petName, String petOwnerName, org.springframework.data.domain.Pageable pageable);
 
+    AppointmentSliceDTO clinicPastAppointmentsAfter(UUID clinicId, OffsetDateTime from, OffsetDateTime to, String petName, String petOwnerName, String cursor, int size, boolean includeTotal);
+
+    AppointmentSliceDTO ownerPastAppointmentsAfter(UUID ownerId, String petName, String petOwnerName, String cursor, int size, boolean includeTotal);
+
+    AppointmentSliceDTO vetPastAppointmentsAfter(UUID vetId, String petName, String petOwnerName, String cursor, int size, boolean includeTotal);
+
+    List<AppointmentDTO> searchClinicAppointmentsByName(UUID clinicId, String query, int limit);
+
     List<org.example.backend.data.Pet> findDistinctConfirmedPetsByClinicId(UUID clinicId);
 
     void logAppointmentActivity(UUID userId, UUID clinicId, UUID vetId, String action, String details, UUID appointmentId, String extraJson);
@@ -0,0 +1,123 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.data.EmailNotification;
+import org.example.backend.repository.EmailNotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds DIGEST events whose window has closed into one PENDING digest mail per recipient and deletes the events,
+ * leaving a single outbox row for the dispatcher. A lone event is simply released as the original mail.
+ */
+@Component
+public class EmailDigestFolder {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDigestFolder.class);
+    private static final String DIGEST_TEMPLATE = "email/digest.html";
+    private static final List<String> EVENT_FIELDS = List.of("petName", "appointmentDate", "clinicName");
+    private static final ObjectMapper MAPPER = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    private static final TypeReference<Map<String, Object>> MODEL_TYPE = new TypeReference<>() {
+    };
+
+    private final EmailNotificationRepository notificationRepo;
+    private final TransactionTemplate transactionTemplate;
+    /* Recipients per batch; each is folded with all of its due events */
+    private final int batchSize;
+    private final Counter folded;
+
+    public EmailDigestFolder(EmailNotificationRepository notificationRepo,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${email.digest.batch-size:500}") int batchSize) {
+        this.notificationRepo = notificationRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.folded = meterRegistry.counter("email.digest.folded");
+    }
+
+    @Scheduled(fixedDelayString = "${email.digest.poll-interval-ms:30000}")
+    public void fold() {
+        Integer claimed;
+        do {
+            claimed = transactionTemplate.execute(status -> foldBatch(OffsetDateTime.now()));
+        } while (claimed != null && claimed == batchSize);
+    }
+
+    private int foldBatch(OffsetDateTime now) {
+        List<EmailNotification> events = notificationRepo.claimDueDigestEvents(now, batchSize);
+        Map<String, List<EmailNotification>> byRecipient = new LinkedHashMap<>();
+        for (EmailNotification event : events) {
+            byRecipient.computeIfAbsent(event.getRecipientEmail(), key -> new ArrayList<>()).add(event);
+        }
+
+        for (Map.Entry<String, List<EmailNotification>> entry : byRecipient.entrySet()) {
+            List<EmailNotification> group = entry.getValue();
+            if (group.size() == 1) {
+                EmailNotification only = group.get(0);
+                only.setStatus("PENDING");
+                only.setNextAttemptAt(now);
+                continue;
+            }
+            notificationRepo.save(EmailNotification.builder()
+                    .recipientEmail(entry.getKey())
+                    .subject("PetWell: " + group.size() + " updates")
+                    .templateName(DIGEST_TEMPLATE)
+                    .modelJson(digestModel(group))
+                    .status("PENDING")
+                    .relatedEntityType("DIGEST")
+                    .createdAt(now)
+                    .nextAttemptAt(now)
+                    .build());
+            notificationRepo.deleteAllInBatch(group);
+            folded.increment(group.size());
+        }
+        if (!events.isEmpty()) {
+            log.info("Folded {} digest events for {} recipients", events.size(), byRecipient.size());
+        }
+        return byRecipient.size();
+    }
+
+    private static String digestModel(List<EmailNotification> group) {
+        List<Map<String, Object>> items = new ArrayList<>(group.size());
+        for (EmailNotification event : group) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("subject", event.getSubject());
+            Map<String, Object> model = readModel(event.getModelJson());
+            for (String field : EVENT_FIELDS) {
+                item.put(field, model.get(field));
+            }
+            items.add(item);
+        }
+        try {
+            return MAPPER.writeValueAsString(Map.of("eventCount", group.size(), "events", items));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize digest model", e);
+        }
+    }
+
+    private static Map<String, Object> readModel(String modelJson) {
+        if (modelJson == null) return Map.of();
+        try {
+            return MAPPER.readValue(modelJson, MODEL_TYPE);
+        } catch (JsonProcessingException e) {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.backend.service;
+
+import org.example.backend.data.EmailDigestPreference;
+
+import java.util.UUID;
+
+public interface EmailDigestPreferenceService {
+
+    EmailDigestPreference.Mode getMode(UUID accountId);
+
+    EmailDigestPreference.Mode setMode(UUID accountId, EmailDigestPreference.Mode mode);
+}
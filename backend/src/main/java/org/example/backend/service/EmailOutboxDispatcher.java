@@ -0,0 +1,240 @@
+package org.example.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.example.backend.data.EmailNotification;
+import org.example.backend.repository.EmailNotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the mail outbox. Each batch is claimed with SKIP LOCKED and leased by flipping it to SENDING, so several
+ * backend instances can dispatch side by side and a crashed worker's rows become due again when the lease ends.
+ * A batch goes out through one JavaMailSender.send call, which reuses a single SMTP connection.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final ObjectReader MODEL_READER = new ObjectMapper().readerFor(new TypeReference<Map<String, Object>>() {
+    });
+
+    private final EmailNotificationRepository notificationRepo;
+    private final JavaMailSender mailSender;
+    private final EmailTemplateRenderer renderer;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor emailExecutor;
+    private final AtomicBoolean inFlight = new AtomicBoolean();
+
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration lease;
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+
+    public EmailOutboxDispatcher(EmailNotificationRepository notificationRepo,
+                                 JavaMailSender mailSender,
+                                 EmailTemplateRenderer renderer,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Qualifier("emailExecutor") Executor emailExecutor,
+                                 @Value("${email.outbox.workers:1}") int workers,
+                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${email.outbox.backoff-seconds:30}") long backoffSeconds,
+                                 @Value("${email.outbox.lease-seconds:300}") long leaseSeconds) {
+        this.notificationRepo = notificationRepo;
+        this.mailSender = mailSender;
+        this.renderer = renderer;
+        this.transactionTemplate = transactionTemplate;
+        this.emailExecutor = emailExecutor;
+        this.workers = Math.max(1, workers);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = Duration.ofSeconds(backoffSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.sent = meterRegistry.counter("email.outbox.sent");
+        this.retried = meterRegistry.counter("email.outbox.retried");
+        this.failed = meterRegistry.counter("email.outbox.failed");
+        this.batchTimer = meterRegistry.timer("email.outbox.batch");
+        this.batchSizes = meterRegistry.summary("email.outbox.batch.size");
+    }
+
+    /*
+     * Hands the configured number of workers to the email executor and returns at once, so an SMTP burst never holds
+     * the shared scheduler thread. SKIP LOCKED keeps their batches disjoint; a poll that finds the previous run still
+     * going is skipped.
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        if (!inFlight.compareAndSet(false, true)) return;
+        try {
+            CompletableFuture<?>[] runs = new CompletableFuture<?>[workers];
+            for (int i = 0; i < workers; i++) {
+                runs[i] = CompletableFuture.runAsync(this::drain, emailExecutor);
+            }
+            CompletableFuture.allOf(runs).whenComplete((ignored, e) -> {
+                inFlight.set(false);
+                if (e != null) {
+                    log.error("Outbox drain failed: {}", e.getMessage(), e);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.set(false);
+            throw e;
+        }
+    }
+
+    /* Keeps draining while full batches come back, so a burst is worked off in one run */
+    private void drain() {
+        int claimed;
+        do {
+            claimed = batchTimer.record(this::dispatchBatch);
+        } while (claimed == batchSize);
+    }
+
+    private int dispatchBatch() {
+        OffsetDateTime now = OffsetDateTime.now();
+        List<EmailNotification> batch = transactionTemplate.execute(status -> {
+            List<EmailNotification> due = notificationRepo.claimDue(now, batchSize);
+            for (EmailNotification notification : due) {
+                notification.setStatus("SENDING");
+                notification.setNextAttemptAt(now.plus(lease));
+            }
+            return due;
+        });
+        if (batch == null || batch.isEmpty()) return 0;
+        batchSizes.record(batch.size());
+
+        EmailTemplateRenderer.Batch renders = renderer.batch();
+        Map<MimeMessage, EmailNotification> byMessage = new IdentityHashMap<>();
+        List<EmailNotification> failures = new ArrayList<>();
+        for (EmailNotification notification : batch) {
+            try {
+                byMessage.put(toMessage(notification, bodyOf(notification, renders)), notification);
+            } catch (MessagingException | JsonProcessingException | RuntimeException e) {
+                notification.setLastError(e.getMessage());
+                failures.add(notification);
+            }
+        }
+
+        List<EmailNotification> delivered = new ArrayList<>(byMessage.values());
+        if (!byMessage.isEmpty()) {
+            try {
+                mailSender.send(byMessage.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                /* Partial failure: only the listed messages failed, the rest of the batch went out */
+                for (Map.Entry<Object, Exception> failure : e.getFailedMessages().entrySet()) {
+                    EmailNotification notification = byMessage.get(failure.getKey());
+                    if (notification != null) {
+                        notification.setLastError(failure.getValue().getMessage());
+                        delivered.remove(notification);
+                        failures.add(notification);
+                    }
+                }
+                if (e.getFailedMessages().isEmpty()) {
+                    failAll(delivered, failures, e);
+                }
+            } catch (RuntimeException e) {
+                failAll(delivered, failures, e);
+            }
+        }
+
+        OffsetDateTime finishedAt = OffsetDateTime.now();
+        for (EmailNotification notification : failures) {
+            scheduleRetry(notification, finishedAt);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                List<UUID> ids = delivered.stream().map(EmailNotification::getId).toList();
+                notificationRepo.markSent(ids, finishedAt);
+            }
+            if (!failures.isEmpty()) {
+                notificationRepo.saveAll(failures);
+            }
+        });
+        sent.increment(delivered.size());
+        log.info("Outbox batch: {} sent, {} failed", delivered.size(), failures.size());
+        return batch.size();
+    }
+
+    private String bodyOf(EmailNotification notification, EmailTemplateRenderer.Batch renders) throws JsonProcessingException {
+        if (notification.getTemplateName() == null) {
+            return notification.getBody();
+        }
+        String modelJson = notification.getModelJson() == null ? "{}" : notification.getModelJson();
+        Map<String, Object> model = MODEL_READER.readValue(modelJson);
+        return renders.render(notification.getTemplateName(), modelJson, model);
+    }
+
+    private MimeMessage toMessage(EmailNotification notification, String body) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setTo(notification.getRecipientEmail());
+        helper.setSubject(notification.getSubject());
+        helper.setText(body, true);
+        return message;
+    }
+
+    private static void failAll(List<EmailNotification> delivered, List<EmailNotification> failures, Exception e) {
+        log.error("Outbox batch could not be sent: {}", e.getMessage(), e);
+        for (EmailNotification notification : delivered) {
+            notification.setLastError(e.getMessage());
+        }
+        failures.addAll(delivered);
+        delivered.clear();
+    }
+
+    /* Exponential backoff from the base delay, capped at an hour; gives up after maxAttempts */
+    private void scheduleRetry(EmailNotification notification, OffsetDateTime now) {
+        int attempts = notification.getAttempts() + 1;
+        notification.setAttempts(attempts);
+        if (notification.getLastError() != null && notification.getLastError().length() > 1000) {
+            notification.setLastError(notification.getLastError().substring(0, 1000));
+        }
+        if (attempts >= maxAttempts) {
+            notification.setStatus("FAILED");
+            failed.increment();
+            log.error("Giving up on email {} to {} after {} attempts", notification.getId(), notification.getRecipientEmail(), attempts);
+            return;
+        }
+        Duration delay = baseBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        notification.setStatus("PENDING");
+        notification.setNextAttemptAt(now.plus(delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay));
+        retried.increment();
+    }
+}
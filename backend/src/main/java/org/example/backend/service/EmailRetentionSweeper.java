@@ -0,0 +1,48 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.repository.EmailNotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+/* Keeps the notification log bounded: delivered and abandoned mails are deleted after the retention period */
+@Component
+public class EmailRetentionSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailRetentionSweeper.class);
+
+    private final EmailNotificationRepository notificationRepo;
+    private final MeterRegistry meterRegistry;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public EmailRetentionSweeper(EmailNotificationRepository notificationRepo,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${email.retention-days:180}") int retentionDays,
+                                 @Value("${email.retention-batch-size:1000}") int batchSize) {
+        this.notificationRepo = notificationRepo;
+        this.meterRegistry = meterRegistry;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${email.retention-cron:0 30 3 * * *}")
+    public void purge() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusDays(retentionDays);
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = notificationRepo.deleteExpiredBatch(cutoff, batchSize);
+            purged += deleted;
+        } while (deleted == batchSize);
+        meterRegistry.counter("email.notifications.purged").increment(purged);
+        if (purged > 0) {
+            log.info("Purged {} email notifications older than {} days", purged, retentionDays);
+        }
+    }
+}
@@ -1,55 +1,83 @@
 package org.example.backend.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.example.backend.data.EmailDigestPreference;
 import org.example.backend.data.EmailNotification;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.repository.EmailDigestPreferenceRepository;
 import org.example.backend.repository.EmailNotificationRepository;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.OffsetDateTime;
-import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Queues mail in the email_notifications outbox. The row joins the caller's transaction, so nothing is sent for a
+ * change that rolls back; EmailOutboxDispatcher delivers committed rows.
+ */
 @Service
 @RequiredArgsConstructor
 public class EmailService {
     private static final Logger log = LoggerFactory.getLogger(EmailService.class);
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
+    /* Sorted keys, so equal models serialize identically and the dispatcher can render them once */
+    private static final ObjectMapper MODEL_MAPPER = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
     private final EmailNotificationRepository notificationRepo;
+    private final EmailDigestPreferenceRepository digestPreferences;
+    private final EmailTemplateRenderer renderer;
 
-    @Async
+    @Transactional
     public void sendTemplateEmail(String to, String subject, String templateName, Map<String, Object> model, String entityType, UUID entityId) {
-        log.info("Attempting to send email to {} with subject {}", to, subject);
-        String body = templateEngine.process(templateName, new Context(Locale.getDefault(), model));
-        sendAndStore(to, subject, body, entityType, entityId);
+        String modelJson;
+        try {
+            modelJson = MODEL_MAPPER.writeValueAsString(model);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Email model for " + templateName + " is not serializable", e);
+        }
+        enqueue(to, subject, templateName, modelJson, entityType, entityId);
     }
 
-    private void sendAndStore(String to, String subject, String body, String entityType, UUID entityId) {
-        EmailNotification notification = EmailNotification.builder().recipientEmail(to).subject(subject).body(body).status("PENDING").relatedEntityType(entityType).relatedEntityId(entityId).sentAt(OffsetDateTime.now()).build();
-        notificationRepo.save(notification);
+    /* Rebuilds the HTML of a stored mail for audit views; only legacy rows still carry a body */
+    public String renderStoredBody(UUID notificationId) {
+        EmailNotification notification = notificationRepo.findById(notificationId)
+                .orElseThrow(() -> new ResourceNotFoundException("EmailNotification", notificationId));
+        if (notification.getTemplateName() == null) {
+            return notification.getBody();
+        }
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(body, true);
-            mailSender.send(message);
-            notification.setStatus("SENT");
-            log.info("Email sent to {}", to);
-        } catch (Exception e) {
-            notification.setStatus("FAILED");
-            log.error("Failed to send email to {}: {}", to, e.getMessage(), e);
+            Map<String, Object> model = MODEL_MAPPER.readValue(
+                    notification.getModelJson() == null ? "{}" : notification.getModelJson(), new TypeReference<Map<String, Object>>() {
+                    });
+            return renderer.render(notification.getTemplateName(), model);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored email model is not readable", e);
+        }
+    }
+
+    private void enqueue(String to, String subject, String templateName, String modelJson, String entityType, UUID entityId) {
+        OffsetDateTime now = OffsetDateTime.now();
+        EmailDigestPreference.Mode mode = digestPreferences.findById(to)
+                .map(EmailDigestPreference::getMode)
+                .orElse(EmailDigestPreference.Mode.IMMEDIATE);
+        String status = "PENDING";
+        OffsetDateTime dueAt = now;
+        if (mode != EmailDigestPreference.Mode.IMMEDIATE) {
+            /* Join the recipient's open window if there is one, otherwise this event opens it */
+            status = "DIGEST";
+            dueAt = notificationRepo.findFirstByRecipientEmailAndStatusOrderByCreatedAtAsc(to, "DIGEST")
+                    .map(EmailNotification::getNextAttemptAt)
+                    .orElse(now.plus(mode.window()));
         }
+        EmailNotification notification = EmailNotification.builder().recipientEmail(to).subject(subject).templateName(templateName).modelJson(modelJson).status(status).relatedEntityType(entityType).relatedEntityId(entityId).createdAt(now).nextAttemptAt(dueAt).build();
         notificationRepo.save(notification);
+        log.info("Queued email to {} with subject {} ({})", to, subject, mode);
     }
-} 
\ No newline at end of file
+}
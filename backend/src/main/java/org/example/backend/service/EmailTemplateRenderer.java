@@ -0,0 +1,65 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.cache.StandardCacheManager;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders the mail templates with an engine of its own whose parsed templates are always cached, independent of
+ * spring.thymeleaf.cache, which devtools switches off. Render time is recorded per template as email.render.
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    private final SpringTemplateEngine engine;
+    private final MeterRegistry meterRegistry;
+
+    public EmailTemplateRenderer(MeterRegistry meterRegistry, @Value("${email.templates.cache-size:64}") int cacheSize) {
+        this.meterRegistry = meterRegistry;
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        resolver.setCacheTTLMs(null);
+
+        StandardCacheManager cacheManager = new StandardCacheManager();
+        cacheManager.setTemplateCacheMaxSize(cacheSize);
+
+        this.engine = new SpringTemplateEngine();
+        this.engine.setTemplateResolver(resolver);
+        this.engine.setCacheManager(cacheManager);
+    }
+
+    public String render(String templateName, Map<String, Object> model) {
+        Timer timer = meterRegistry.timer("email.render", "template", templateName);
+        return timer.record(() -> engine.process(templateName, new Context(Locale.getDefault(), model)));
+    }
+
+    /* One per dispatch batch: identical (template, model) pairs, e.g. the mails of one cancellation, render once */
+    public Batch batch() {
+        return new Batch();
+    }
+
+    public final class Batch {
+        private final Map<String, String> rendered = new HashMap<>();
+
+        private Batch() {
+        }
+
+        public String render(String templateName, String modelKey, Map<String, Object> model) {
+            return rendered.computeIfAbsent(templateName + '\u0000' + modelKey, key -> EmailTemplateRenderer.this.render(templateName, model));
+        }
+    }
+}
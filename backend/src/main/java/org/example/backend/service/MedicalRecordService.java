@@ -3,7 +3,9 @@ package org.example.backend.service;
 import org.example.backend.dto.MedicalRecordDTO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface MedicalRecordService {
@@ -13,6 +15,9 @@ public interface MedicalRecordService {
 
     String generateDownloadUrl(UUID recordId, UUID requesterId, boolean isClinic, UUID clinicId, UUID vetId);
 
+    /* Records the requester may not read are left out of the result */
+    Map<UUID, String> generateDownloadUrls(Collection<UUID> recordIds, String requester, boolean isAdmin);
+
     void deleteMedicalRecord(UUID recordId, UUID requesterId, boolean isClinic, UUID clinicId, UUID vetId);
 
     List<MedicalRecordDTO> getMedicalRecordsForConfirmedAppointments(UUID clinicId);
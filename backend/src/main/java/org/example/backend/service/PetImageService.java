@@ -0,0 +1,21 @@
+package org.example.backend.service;
+
+import org.example.backend.data.Pet;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+public interface PetImageService {
+
+    /* Decodes the uploaded avatar once and stores its thumbnails in the background; source is deleted afterwards */
+    void generateVariants(UUID petId, String originalObject, Path source);
+
+    /* Deletes the thumbnails of the pet's current avatar and forgets them */
+    void dropVariants(Pet pet);
+
+    /* Moves the thumbnails along when the avatar object is renamed */
+    void moveVariants(Pet pet, String newImageUrl);
+
+    /* The smallest thumbnail at least size pixels wide, or the original when there is none or size is null */
+    String objectFor(Pet pet, Integer size);
+}
@@ -5,7 +5,9 @@ import org.example.backend.dto.PetDTO;
 import org.example.backend.dto.PetDTOId;
 import org.example.backend.dto.PetStatisticsDTO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -38,4 +40,6 @@ public interface PetService {
     List<PetStatisticsDTO> getPetStatistics(UUID petId);
 
     void updatePetImageUrl(UUID petId, String newImageUrl);
+
+    Map<UUID, String> signedImageUrls(Collection<UUID> petIds, UUID requesterId, boolean anyOwner, Integer size);
 }
\ No newline at end of file
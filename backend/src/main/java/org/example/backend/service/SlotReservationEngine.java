@@ -0,0 +1,38 @@
+package org.example.backend.service;
+
+import org.example.backend.data.AppointmentLock;
+import org.example.backend.dto.LockedSlotDTO;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Holds the short-lived (vet, slot) reservations taken before a booking.
+ * Selected with the {@code appointments.lock-engine} property: {@code jpa} (default) keeps them in
+ * {@code appointment_locks}, {@code memory} keeps them in process for single-node deployments.
+ */
+public interface SlotReservationEngine {
+
+    /**
+     * Reserves the slot for the user, dropping any other reservation the user still holds.
+     * Throws {@link org.springframework.dao.DataIntegrityViolationException} when another live reservation holds it.
+     */
+    AppointmentLock reserve(UUID vetId, OffsetDateTime appointmentTime, UUID userId, int durationMinutes, OffsetDateTime expiresAt);
+
+    /* The reservation on the slot, expired or not, so callers can tell a missing lock from a stale one */
+    Optional<AppointmentLock> find(UUID vetId, OffsetDateTime appointmentTime);
+
+    Optional<AppointmentLock> findByUser(UUID userId);
+
+    List<LockedSlotDTO> activeSlots(UUID vetId, OffsetDateTime from, OffsetDateTime to);
+
+    List<LockedSlotDTO> activeSlots(Collection<UUID> vetIds, OffsetDateTime from, OffsetDateTime to);
+
+    void release(UUID lockId, UUID userId);
+
+    /* Called once the reserved slot has been turned into an appointment */
+    void complete(AppointmentLock lock);
+}
@@ -0,0 +1,33 @@
+package org.example.backend.service;
+
+import org.example.backend.data.StoredBlob;
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+
+public interface StoredBlobService {
+
+    /* Content that has been hashed and is present in storage, but not referenced yet */
+    record Staged(String sha256, String objectName, long size, String contentType) {
+    }
+
+    /* Thrown by retain when the blob was garbage collected after staging; stage again and retry */
+    class BlobCollectedException extends RuntimeException {
+        public BlobCollectedException(String sha256) {
+            super("Blob " + sha256 + " was collected while it was being referenced");
+        }
+    }
+
+    /* Hashes the content, records a tombstone and uploads unless the object exists; runs outside any transaction */
+    Staged stage(InputStreamSource content, String contentType) throws IOException;
+
+    /* Adds references to staged content in the caller's transaction; only touches the stored_blobs row */
+    StoredBlob retain(Staged staged, int references);
+
+    /* Drops one reference; an unreferenced blob becomes a tombstone that collectGarbage removes after a grace period */
+    void release(StoredBlob blob);
+
+    /* Deletes up to batchSize tombstones orphaned before cutoff, objects first, and returns how many were removed */
+    int collectGarbage(OffsetDateTime cutoff, int batchSize);
+}
@@ -0,0 +1,47 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+/* Deletes medical record blobs nobody has referenced for the grace period; until then a re-upload reuses them */
+@Component
+public class StoredBlobSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(StoredBlobSweeper.class);
+
+    private final StoredBlobService storedBlobService;
+    private final MeterRegistry meterRegistry;
+    private final int graceMinutes;
+    private final int batchSize;
+
+    public StoredBlobSweeper(StoredBlobService storedBlobService,
+                             MeterRegistry meterRegistry,
+                             @Value("${storage.blob-gc.grace-minutes:60}") int graceMinutes,
+                             @Value("${storage.blob-gc.batch-size:50}") int batchSize) {
+        this.storedBlobService = storedBlobService;
+        this.meterRegistry = meterRegistry;
+        this.graceMinutes = graceMinutes;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${storage.blob-gc.cron:0 */15 * * * *}")
+    public void sweep() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minusMinutes(graceMinutes);
+        long collected = 0;
+        int deleted;
+        do {
+            deleted = storedBlobService.collectGarbage(cutoff, batchSize);
+            collected += deleted;
+        } while (deleted == batchSize);
+        meterRegistry.counter("storage.blobs.collected").increment(collected);
+        if (collected > 0) {
+            log.info("Collected {} unreferenced medical record blobs", collected);
+        }
+    }
+}
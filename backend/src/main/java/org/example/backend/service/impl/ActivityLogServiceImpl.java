@@ -14,6 +14,7 @@ import org.example.backend.repository.UserRepository;
 import org.example.backend.repository.VetRepository;
 import org.example.backend.repository.VeterinaryClinicRepository;
 import org.example.backend.service.ActivityLogService;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
@@ -31,6 +32,7 @@ public class ActivityLogServiceImpl implements ActivityLogService {
     private final EntityManager entityManager;
 
     @Override
+    @Async("analyticsExecutor")
     @Transactional
     public void logActivity(UUID userId, UUID clinicId, UUID vetId, String action, String details, UUID appointmentId, String extraJson) {
         User user = userId != null ? userRepo.findById(userId).orElse(null) : null;
@@ -0,0 +1,252 @@
+package org.example.backend.service.impl;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.cache.VetCalendarCache;
+import org.example.backend.data.*;
+import org.example.backend.dto.AppointmentDTO;
+import org.example.backend.dto.AppointmentSeriesDTO;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.repository.AppointmentRepository;
+import org.example.backend.repository.AppointmentSeriesRepository;
+import org.example.backend.repository.PetRepository;
+import org.example.backend.repository.VetRepository;
+import org.example.backend.repository.VeterinaryClinicRepository;
+import org.example.backend.service.AppointmentSeriesService;
+import org.example.backend.service.ClinicAccountService;
+import org.example.backend.service.SlotReservationEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class AppointmentSeriesServiceImpl implements AppointmentSeriesService {
+
+    static final String PROJECTED = "PROJECTED";
+    static final String PROJECTED_CONFLICT = "PROJECTED_CONFLICT";
+
+    private static final int MAX_INTERVAL = 52;
+    private static final int MAX_COUNT = 500;
+
+    private final AppointmentSeriesRepository seriesRepo;
+    private final AppointmentRepository appointments;
+    private final PetRepository pets;
+    private final VetRepository vets;
+    private final VeterinaryClinicRepository clinics;
+    private final ClinicAccountService clinicAccountService;
+    private final SlotReservationEngine reservationEngine;
+    private final VetCalendarCache calendarCache;
+
+    /* Used when a series is created without a timeZone; empty means the server's zone */
+    @Value("${appointments.default-time-zone:}")
+    private String defaultTimeZone;
+
+    @Override
+    @Transactional
+    public AppointmentSeriesDTO create(AppointmentSeriesDTO dto, UUID requesterId) {
+        if (dto.startsAt() == null || dto.frequency() == null || dto.type() == null || dto.type().isBlank()) {
+            throw new IllegalArgumentException("startsAt, frequency and type are required.");
+        }
+        if (dto.interval() < 1 || dto.interval() > MAX_INTERVAL) {
+            throw new IllegalArgumentException("interval must be between 1 and " + MAX_INTERVAL + ".");
+        }
+        if (dto.count() != null && (dto.count() < 1 || dto.count() > MAX_COUNT)) {
+            throw new IllegalArgumentException("count must be between 1 and " + MAX_COUNT + ".");
+        }
+        if (dto.until() != null && dto.until().isBefore(dto.startsAt())) {
+            throw new IllegalArgumentException("until must not be before startsAt.");
+        }
+        AppointmentSeries.Frequency frequency;
+        try {
+            frequency = AppointmentSeries.Frequency.valueOf(dto.frequency());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown frequency " + dto.frequency());
+        }
+        ZoneId timeZone;
+        try {
+            String zone = dto.timeZone() != null ? dto.timeZone() : defaultTimeZone;
+            timeZone = zone.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone " + (dto.timeZone() != null ? dto.timeZone() : defaultTimeZone));
+        }
+
+        Pet pet = pets.findById(dto.petId())
+                .orElseThrow(() -> new ResourceNotFoundException("Pet", dto.petId()));
+        Vet vet = vets.findById(dto.vetId())
+                .orElseThrow(() -> new ResourceNotFoundException("Vet", dto.vetId()));
+        VeterinaryClinic clinic = clinics.findById(dto.clinicId())
+                .orElseThrow(() -> new ResourceNotFoundException("Clinic", dto.clinicId()));
+
+        boolean isOwner = pet.getOwner() != null && pet.getOwner().getId().equals(requesterId);
+        if (!isOwner && !vet.getId().equals(requesterId) && !clinicAccountService.hasClinicAccess(requesterId, clinic.getId())) {
+            throw new SecurityException("You are not allowed to schedule appointments for this pet.");
+        }
+        if (!Boolean.TRUE.equals(vet.isActive())) {
+            throw new IllegalStateException("The selected vet is currently inactive.");
+        }
+        boolean isVetInClinic = clinic.getMemberships().stream()
+                .anyMatch(m -> m.getVet().getId().equals(vet.getId()));
+        if (!isVetInClinic) {
+            throw new IllegalStateException("Selected vet does not belong to this clinic.");
+        }
+        /* Only the first occurrence is checked up front; later ones are flagged when their window is read */
+        if (appointments.existsByVet_IdAndAppointmentDate(vet.getId(), dto.startsAt())) {
+            throw new IllegalStateException("This vet already has an appointment at the selected time.");
+        }
+
+        AppointmentSeries series = seriesRepo.save(AppointmentSeries.builder()
+                .pet(pet)
+                .vet(vet)
+                .clinic(clinic)
+                .type(dto.type())
+                .notes(dto.notes())
+                .startsAt(dto.startsAt())
+                .timeZone(timeZone.getId())
+                .frequency(frequency)
+                .interval(dto.interval())
+                .count(dto.count())
+                .until(dto.until())
+                .active(true)
+                .createdBy(requesterId)
+                .build());
+        return toDto(series);
+    }
+
+    @Override
+    @Transactional
+    public void cancel(UUID seriesId, UUID requesterId) {
+        AppointmentSeries series = seriesRepo.findById(seriesId)
+                .orElseThrow(() -> new ResourceNotFoundException("AppointmentSeries", seriesId));
+        boolean isOwner = series.getPet().getOwner() != null && series.getPet().getOwner().getId().equals(requesterId);
+        if (!isOwner && !isVetOrClinic(series, requesterId)) {
+            throw new SecurityException("You are not allowed to cancel this series.");
+        }
+        series.setActive(false);
+        seriesRepo.save(series);
+    }
+
+    @Override
+    @Transactional
+    public AppointmentDTO confirmOccurrence(UUID seriesId, OffsetDateTime occurrence, UUID requesterId) {
+        AppointmentSeries series = seriesRepo.findById(seriesId)
+                .orElseThrow(() -> new ResourceNotFoundException("AppointmentSeries", seriesId));
+        if (!isVetOrClinic(series, requesterId)) {
+            throw new SecurityException("Only the vet or the clinic can confirm an occurrence.");
+        }
+        if (!series.isActive()) {
+            throw new IllegalStateException("This series has been cancelled.");
+        }
+        if (!SeriesExpansion.isOccurrence(series, occurrence)) {
+            throw new IllegalArgumentException("The series has no occurrence at " + occurrence);
+        }
+        UUID vetId = series.getVet().getId();
+        if (appointments.existsByVet_IdAndAppointmentDate(vetId, occurrence)) {
+            throw new IllegalStateException("This vet already has an appointment at the selected time.");
+        }
+        reservationEngine.find(vetId, occurrence)
+                .filter(lock -> lock.getExpiresAt().isAfter(OffsetDateTime.now()) && !lock.getUserId().equals(requesterId))
+                .ifPresent(lock -> {
+                    throw new IllegalStateException("This time slot is temporarily reserved by another user.");
+                });
+
+        Appointment a = appointments.save(Appointment.builder()
+                .pet(series.getPet())
+                .vet(series.getVet())
+                .clinic(series.getClinic())
+                .series(series)
+                .appointmentDate(occurrence)
+                .status(Appointment.Status.CONFIRMED)
+                .notes(series.getNotes())
+                .type(series.getType())
+                .build());
+        calendarCache.evict(vetId, occurrence);
+        return appointments.findDtosByIds(List.of(a.getId())).get(0);
+    }
+
+    @Override
+    public List<AppointmentDTO> vetOccurrences(UUID vetId, OffsetDateTime from, OffsetDateTime to, List<AppointmentDTO> booked) {
+        return project(seriesRepo.findActiveForVet(vetId, from, to), from, to, booked);
+    }
+
+    @Override
+    public List<AppointmentDTO> clinicOccurrences(UUID clinicId, OffsetDateTime from, OffsetDateTime to, List<AppointmentDTO> booked) {
+        return project(seriesRepo.findActiveForClinic(clinicId, from, to), from, to, booked);
+    }
+
+    /*
+     * Occurrences already materialized (same vet, time and pet) are left to the booked row. Any other row in the
+     * same slot marks the occurrence as a conflict, so conflicts are only ever computed for the window being read.
+     */
+    private List<AppointmentDTO> project(List<AppointmentSeries> seriesList, OffsetDateTime from, OffsetDateTime to, List<AppointmentDTO> booked) {
+        if (seriesList.isEmpty()) return List.of();
+        Map<String, AppointmentDTO> bookedBySlot = new HashMap<>();
+        for (AppointmentDTO dto : booked) {
+            if (dto.vetId() != null && dto.appointmentDate() != null) {
+                bookedBySlot.put(dto.vetId() + "|" + dto.appointmentDate().toInstant(), dto);
+            }
+        }
+
+        List<AppointmentDTO> projected = new ArrayList<>();
+        for (AppointmentSeries series : seriesList) {
+            for (OffsetDateTime at : SeriesExpansion.between(series, from, to)) {
+                AppointmentDTO existing = bookedBySlot.get(series.getVet().getId() + "|" + at.toInstant());
+                if (existing != null && series.getPet().getId().equals(existing.petId())) continue;
+                projected.add(toOccurrenceDto(series, at, existing == null ? PROJECTED : PROJECTED_CONFLICT));
+            }
+        }
+        return projected;
+    }
+
+    private boolean isVetOrClinic(AppointmentSeries series, UUID requesterId) {
+        return series.getVet().getId().equals(requesterId)
+                || clinicAccountService.hasClinicAccess(requesterId, series.getClinic().getId());
+    }
+
+    /* Projected occurrences have no row yet, so id carries the series id for the confirm call */
+    private static AppointmentDTO toOccurrenceDto(AppointmentSeries series, OffsetDateTime at, String status) {
+        Pet pet = series.getPet();
+        User owner = pet.getOwner();
+        return new AppointmentDTO(
+                series.getId(),
+                pet.getId(),
+                pet.getName(),
+                series.getVet().getId(),
+                series.getVet().getFullName(),
+                series.getClinic().getId(),
+                at,
+                status,
+                series.getNotes(),
+                owner == null ? null : owner.getId(),
+                owner == null ? null : owner.getFullName(),
+                owner == null ? null : owner.getPhone(),
+                series.getType()
+        );
+    }
+
+    private static AppointmentSeriesDTO toDto(AppointmentSeries s) {
+        return new AppointmentSeriesDTO(
+                s.getId(),
+                s.getPet().getId(),
+                s.getVet().getId(),
+                s.getClinic().getId(),
+                s.getType(),
+                s.getNotes(),
+                s.getStartsAt(),
+                s.getFrequency().name(),
+                s.getInterval(),
+                s.getCount(),
+                s.getUntil(),
+                s.isActive(),
+                s.getTimeZone()
+        );
+    }
+}
@@ -1,26 +1,49 @@
 package org.example.backend.service.impl;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.example.backend.cache.VetCalendarCache;
+import org.example.backend.config.TrigramSearchSupport;
 import org.example.backend.data.*;
+import org.example.backend.dto.AppointmentCursor;
 import org.example.backend.dto.AppointmentDTO;
+import org.example.backend.dto.AppointmentSliceDTO;
+import org.example.backend.dto.BatchBookingResultDTO;
+import org.example.backend.dto.BatchBookingRowDTO;
+import org.example.backend.dto.BookedSlotDTO;
+import org.example.backend.dto.ClinicAvailabilityDTO;
+import org.example.backend.dto.LockedSlotDTO;
+import org.example.backend.dto.VetAvailabilityDTO;
 import org.example.backend.exception.ResourceNotFoundException;
 import org.example.backend.exception.UnauthorizedException;
 import org.example.backend.exception.UserNotFoundException;
 import org.example.backend.repository.AppointmentRepository;
 import org.example.backend.repository.PetRepository;
+import org.example.backend.repository.VetClinicMembershipRepository;
 import org.example.backend.repository.VetRepository;
 import org.example.backend.repository.VeterinaryClinicRepository;
-import org.example.backend.repository.AppointmentLockRepository;
 import org.example.backend.service.AppointmentService;
+import org.example.backend.service.AppointmentSeriesService;
 import org.example.backend.service.ClinicAccountService;
 import org.example.backend.service.EmailService;
 import org.example.backend.service.ActivityLogService;
+import org.example.backend.service.SlotReservationEngine;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.ArrayList;
 
@@ -28,19 +51,39 @@ import java.util.ArrayList;
 @RequiredArgsConstructor
 public class AppointmentServiceImpl implements AppointmentService {
 
+    /* Same durations the booking page uses to lay out slots */
+    private static final Map<String, Integer> TYPE_DURATIONS = Map.of(
+            "Vaccination", 15,
+            "Deworming", 10,
+            "Sterilization", 60,
+            "Check-up", 30,
+            "Blood/urine tests", 45
+    );
+    private static final int DEFAULT_DURATION_MINUTES = 30;
+    private static final int MAX_DURATION_MINUTES = 60;
+    private static final int MAX_AVAILABILITY_SLOTS = 10_000;
+    private static final int MAX_SLICE_SIZE = 100;
+    private static final int MAX_BATCH_ROWS = 5_000;
+    private static final int BATCH_FLUSH_SIZE = 500;
+
     private final AppointmentRepository repo;
     private final PetRepository pets;
     private final VetRepository vets;
+    private final VetClinicMembershipRepository memberships;
     private final VeterinaryClinicRepository clinics;
     private final ClinicAccountService clinicAccountService;
     private final EmailService emailService;
     private final ActivityLogService activityLogService;
-    private final AppointmentLockRepository lockRepository;
+    private final SlotReservationEngine reservationEngine;
+    private final VetCalendarCache calendarCache;
+    private final TrigramSearchSupport trigramSearch;
+    private final EntityManager entityManager;
+    private final AppointmentSeriesService seriesService;
 
     @Override
     @Transactional
     public AppointmentDTO book(AppointmentDTO dto, UUID requesterId) {
-        AppointmentLock lock = lockRepository.findByVetIdAndAppointmentTime(dto.vetId(), dto.appointmentDate())
+        AppointmentLock lock = reservationEngine.find(dto.vetId(), dto.appointmentDate())
                 .orElseThrow(() -> new IllegalStateException("You must reserve a time slot before booking."));
 
         if (!lock.getUserId().equals(requesterId)) {
@@ -73,7 +116,8 @@ public class AppointmentServiceImpl implements AppointmentService {
                     .build();
 
             repo.save(a);
-            lockRepository.delete(lock);
+            reservationEngine.complete(lock);
+            calendarCache.evict(vet.getId(), a.getAppointmentDate());
 
             return toDto(a);
         } catch (DataIntegrityViolationException ex) {
@@ -84,6 +128,130 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
     }
 
+    /*
+     * Clinic-side import: no slot locks, references resolved with one query per table and conflicts found with one
+     * query over the whole date range. Rows that fail validation are reported and skipped, the rest go out in JDBC batches.
+     */
+    @Override
+    @Transactional
+    public BatchBookingResultDTO bookBatch(UUID clinicId, List<AppointmentDTO> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("No appointments to book.");
+        }
+        if (rows.size() > MAX_BATCH_ROWS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_ROWS + " appointments can be booked at once.");
+        }
+        VeterinaryClinic clinic = clinics.findById(clinicId)
+                .orElseThrow(() -> new ResourceNotFoundException("Clinic", clinicId));
+
+        Set<UUID> petIds = new HashSet<>();
+        Set<UUID> vetIds = new HashSet<>();
+        OffsetDateTime from = null;
+        OffsetDateTime to = null;
+        for (AppointmentDTO row : rows) {
+            if (row == null || row.appointmentDate() == null) continue;
+            if (row.petId() != null) petIds.add(row.petId());
+            if (row.vetId() != null) vetIds.add(row.vetId());
+            if (from == null || row.appointmentDate().isBefore(from)) from = row.appointmentDate();
+            if (to == null || row.appointmentDate().isAfter(to)) to = row.appointmentDate();
+        }
+
+        Map<UUID, Pet> petsById = new HashMap<>();
+        pets.findAllById(petIds).forEach(pet -> petsById.put(pet.getId(), pet));
+        Map<UUID, Vet> vetsById = new HashMap<>();
+        vets.findAllById(vetIds).forEach(vet -> vetsById.put(vet.getId(), vet));
+        Set<UUID> clinicVetIds = memberships.findVetIdsByClinicId(clinicId);
+
+        Set<String> taken = new HashSet<>();
+        Set<String> locked = new HashSet<>();
+        if (from != null && !vetIds.isEmpty()) {
+            for (BookedSlotDTO booked : repo.findBookedSlotsForVets(vetIds, from, to)) {
+                taken.add(slotKey(booked.vetId(), booked.appointmentDate()));
+            }
+            for (LockedSlotDTO lock : reservationEngine.activeSlots(vetIds, from, to)) {
+                locked.add(slotKey(lock.vetId(), lock.appointmentTime()));
+            }
+        }
+
+        List<BatchBookingRowDTO> results = new ArrayList<>(rows.size());
+        List<Appointment> pending = new ArrayList<>();
+        List<Integer> pendingIndexes = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            AppointmentDTO row = rows.get(i);
+            String error = validateBatchRow(row, petsById, vetsById, clinicVetIds);
+            if (error == null) {
+                String key = slotKey(row.vetId(), row.appointmentDate());
+                if (locked.contains(key)) {
+                    error = "This time slot is temporarily reserved by another user.";
+                } else if (!taken.add(key)) {
+                    error = "This vet already has an appointment at the selected time.";
+                }
+            }
+            if (error != null) {
+                results.add(BatchBookingRowDTO.rejected(i, error));
+                continue;
+            }
+            pending.add(Appointment.builder()
+                    .pet(petsById.get(row.petId()))
+                    .vet(vetsById.get(row.vetId()))
+                    .clinic(clinic)
+                    .appointmentDate(row.appointmentDate())
+                    .status(row.status() == null ? Appointment.Status.PENDING : parseStatus(row.status()))
+                    .notes(row.notes())
+                    .type(row.type())
+                    .build());
+            pendingIndexes.add(i);
+            results.add(null);
+        }
+
+        try {
+            for (int start = 0; start < pending.size(); start += BATCH_FLUSH_SIZE) {
+                List<Appointment> chunk = pending.subList(start, Math.min(start + BATCH_FLUSH_SIZE, pending.size()));
+                repo.saveAll(chunk);
+                repo.flush();
+                entityManager.clear();
+            }
+        } catch (DataIntegrityViolationException ex) {
+            throw new DataIntegrityViolationException("A slot in the batch was booked concurrently, nothing was imported.", ex);
+        }
+
+        for (int i = 0; i < pending.size(); i++) {
+            Appointment a = pending.get(i);
+            results.set(pendingIndexes.get(i), BatchBookingRowDTO.created(pendingIndexes.get(i), a.getId()));
+            calendarCache.evict(a.getVet().getId(), a.getAppointmentDate());
+        }
+        return new BatchBookingResultDTO(pending.size(), rows.size() - pending.size(), results);
+    }
+
+    private static String validateBatchRow(AppointmentDTO row, Map<UUID, Pet> petsById, Map<UUID, Vet> vetsById, Set<UUID> clinicVetIds) {
+        if (row == null) return "Empty row.";
+        if (row.petId() == null || row.vetId() == null || row.appointmentDate() == null) {
+            return "petId, vetId and appointmentDate are required.";
+        }
+        if (row.type() == null || row.type().isBlank()) return "type is required.";
+        if (!petsById.containsKey(row.petId())) return "Pet not found with id " + row.petId();
+        Vet vet = vetsById.get(row.vetId());
+        if (vet == null) return "Vet not found with id " + row.vetId();
+        if (!Boolean.TRUE.equals(vet.isActive())) return "The selected vet is currently inactive.";
+        if (!clinicVetIds.contains(vet.getId())) return "Selected vet does not belong to this clinic.";
+        if (row.status() != null) {
+            try {
+                parseStatus(row.status());
+            } catch (IllegalArgumentException e) {
+                return "Unknown status " + row.status();
+            }
+        }
+        return null;
+    }
+
+    private static Appointment.Status parseStatus(String status) {
+        return Appointment.Status.valueOf(status.toUpperCase(Locale.ROOT));
+    }
+
+    private static String slotKey(UUID vetId, OffsetDateTime time) {
+        return vetId + "|" + time.toInstant();
+    }
+
     @Override
     @Transactional
     public void cancel(UUID id, UUID requesterId) {
@@ -99,6 +267,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
         a.setStatus(Appointment.Status.CANCELLED);
         repo.save(a);
+        calendarCache.evict(a.getVet().getId(), a.getAppointmentDate());
 
         String userEmail = a.getPet().getOwner().getEmail();
         String userName = a.getPet().getOwner().getFullName();
@@ -179,6 +348,7 @@ public class AppointmentServiceImpl implements AppointmentService {
 
         a.setStatus(Appointment.Status.CONFIRMED);
         repo.save(a);
+        calendarCache.evict(a.getVet().getId(), a.getAppointmentDate());
 
         String userEmail = a.getPet().getOwner().getEmail();
         String userName = a.getPet().getOwner().getFullName();
@@ -207,52 +377,91 @@ public class AppointmentServiceImpl implements AppointmentService {
 
     @Override
     public List<AppointmentDTO> vetCalendar(UUID vetId, OffsetDateTime f, OffsetDateTime t) {
-        List<AppointmentDTO> confirmed = repo.findByVet_IdAndAppointmentDateBetween(vetId, f, t)
-                .stream().map(this::toDto).toList();
-
-        List<AppointmentLock> locks = lockRepository.findAll();
-        List<AppointmentDTO> locked = new ArrayList<>();
-        OffsetDateTime now = OffsetDateTime.now();
-        for (AppointmentLock lock : locks) {
-            if (lock.getVet().getId().equals(vetId)
-                    && !lock.getExpiresAt().isBefore(now)
-                    && !lock.getAppointmentTime().isBefore(f)
-                    && !lock.getAppointmentTime().isAfter(t)) {
-
-                locked.add(new AppointmentDTO(
-                        null, // id
-                        null, // petId
-                        null, // petName
-                        lock.getVet().getId(),
-                        null, // vetName
-                        null, // clinicId
-                        lock.getAppointmentTime(),
-                        "LOCKED", // status
-                        "DURATION:" + lock.getDurationMinutes(),
-                        null, // petOwnerId
-                        null, // petOwnerName
-                        null, // petOwnerPhone
-                        null  // type
-                ));
-            }
-        }
+        List<AppointmentDTO> confirmed = calendarCache.get(vetId, f, t, (start, end) ->
+                repo.findVetCalendar(vetId, start, end));
+
+        List<AppointmentDTO> locked = reservationEngine.activeSlots(vetId, f, t)
+                .stream().map(this::toLockedDto).toList();
 
         List<AppointmentDTO> all = new ArrayList<>();
         all.addAll(confirmed);
         all.addAll(locked);
+        all.addAll(seriesService.vetOccurrences(vetId, f, t, confirmed));
         return all;
     }
 
     @Override
     public List<AppointmentDTO> clinicCalendar(UUID clinicId, OffsetDateTime f, OffsetDateTime t) {
-        return repo.findByClinic_IdAndAppointmentDateBetween(clinicId, f, t)
-                .stream().map(this::toDto).toList();
+        List<AppointmentDTO> booked = repo.findClinicCalendar(clinicId, f, t);
+        List<AppointmentDTO> projected = seriesService.clinicOccurrences(clinicId, f, t, booked);
+        if (projected.isEmpty()) {
+            return booked;
+        }
+        List<AppointmentDTO> all = new ArrayList<>(booked);
+        all.addAll(projected);
+        return all;
     }
 
     @Override
     public List<AppointmentDTO> ownerCalendar(UUID ownerId, OffsetDateTime f, OffsetDateTime t) {
-        return repo.findForOwner(ownerId, f, t)
-                .stream().map(this::toDto).toList();
+        return repo.findOwnerCalendar(ownerId, f, t);
+    }
+
+    @Override
+    public ClinicAvailabilityDTO clinicAvailability(UUID clinicId, OffsetDateTime from, OffsetDateTime to, int slotMinutes) {
+        if (slotMinutes < 5 || slotMinutes > 240) {
+            throw new IllegalArgumentException("slotMinutes must be between 5 and 240");
+        }
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("'to' must be after 'from'");
+        }
+        long slotSeconds = slotMinutes * 60L;
+        long slotCount = Math.ceilDiv(Duration.between(from, to).getSeconds(), slotSeconds);
+        if (slotCount > MAX_AVAILABILITY_SLOTS) {
+            throw new IllegalArgumentException("Requested window has more than " + MAX_AVAILABILITY_SLOTS + " slots");
+        }
+
+        List<Vet> clinicVets = vets.findByClinic(clinicId).stream().filter(Vet::isActive).toList();
+        List<UUID> vetIds = clinicVets.stream().map(Vet::getId).toList();
+        Map<UUID, BitSet> free = new HashMap<>();
+        for (UUID vetId : vetIds) {
+            BitSet slots = new BitSet((int) slotCount);
+            slots.set(0, (int) slotCount);
+            free.put(vetId, slots);
+        }
+
+        if (!vetIds.isEmpty()) {
+            // appointments that started up to one visit earlier can still overlap the first slots
+            OffsetDateTime lookBehind = from.minusMinutes(MAX_DURATION_MINUTES);
+            for (BookedSlotDTO booked : repo.findBookedSlotsForVets(vetIds, lookBehind, to)) {
+                occupy(free.get(booked.vetId()), from, slotSeconds, slotCount, booked.appointmentDate(), durationForType(booked.type()));
+            }
+            for (LockedSlotDTO lock : reservationEngine.activeSlots(vetIds, lookBehind, to)) {
+                occupy(free.get(lock.vetId()), from, slotSeconds, slotCount, lock.appointmentTime(), lock.durationMinutes());
+            }
+        }
+
+        /* BitSet.toByteArray drops trailing zero bytes, so a fully booked tail is padded back to the window length */
+        int bitmapBytes = (int) Math.ceilDiv(slotCount, 8);
+        List<VetAvailabilityDTO> availability = clinicVets.stream()
+                .map(v -> new VetAvailabilityDTO(v.getId(), v.getFullName(),
+                        Base64.getEncoder().encodeToString(Arrays.copyOf(free.get(v.getId()).toByteArray(), bitmapBytes))))
+                .toList();
+        return new ClinicAvailabilityDTO(clinicId, from, to, slotMinutes, (int) slotCount, availability);
+    }
+
+    private static void occupy(BitSet free, OffsetDateTime from, long slotSeconds, long slotCount, OffsetDateTime start, int durationMinutes) {
+        long startOffset = Duration.between(from, start).getSeconds();
+        long endOffset = startOffset + durationMinutes * 60L;
+        long first = Math.max(0, Math.floorDiv(startOffset, slotSeconds));
+        long last = Math.min(slotCount, Math.ceilDiv(endOffset, slotSeconds));
+        if (first < last) {
+            free.clear((int) first, (int) last);
+        }
+    }
+
+    private static int durationForType(String type) {
+        return type == null ? DEFAULT_DURATION_MINUTES : TYPE_DURATIONS.getOrDefault(type, DEFAULT_DURATION_MINUTES);
     }
 
     @Override
@@ -297,6 +506,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         );
 
         repo.delete(appointment);
+        calendarCache.evict(appointment.getVet().getId(), appointment.getAppointmentDate());
     }
 
     @Override
@@ -318,6 +528,9 @@ public class AppointmentServiceImpl implements AppointmentService {
             throw new UnauthorizedException("You don't have permission to edit this appointment");
         }
 
+        UUID previousVetId = a.getVet().getId();
+        OffsetDateTime previousDate = a.getAppointmentDate();
+
         if (dto.appointmentDate() != null) a.setAppointmentDate(dto.appointmentDate());
         if (dto.notes() != null) a.setNotes(dto.notes());
         if (dto.type() != null) a.setType(dto.type());
@@ -359,7 +572,7 @@ public class AppointmentServiceImpl implements AppointmentService {
         Appointment.Status newStatus = oldStatus;
         if (dto.status() != null) {
             try {
-                newStatus = Appointment.Status.valueOf(dto.status().toUpperCase());
+                newStatus = parseStatus(dto.status());
                 a.setStatus(newStatus);
             } catch (IllegalArgumentException ex) {
                 throw new IllegalStateException("Invalid status: " + dto.status());
@@ -367,6 +580,8 @@ public class AppointmentServiceImpl implements AppointmentService {
         }
 
         repo.save(a);
+        calendarCache.evict(previousVetId, previousDate);
+        calendarCache.evict(a.getVet().getId(), a.getAppointmentDate());
         if (dto.status() != null && newStatus != oldStatus) {
             if (newStatus == Appointment.Status.CONFIRMED) {
                 String userEmail = a.getPet().getOwner().getEmail();
@@ -423,8 +638,7 @@ public class AppointmentServiceImpl implements AppointmentService {
                                                                                        String petName,
                                                                                        String petOwnerName,
                                                                                        org.springframework.data.domain.Pageable pageable) {
-        return repo.searchPastAppointments(clinicId, from, to, petName, petOwnerName, pageable)
-                .map(this::toDto);
+        return withDtos(repo.searchPastAppointmentIds(clinicId, from, to, SearchText.normalize(petName), SearchText.normalize(petOwnerName), pageable));
     }
 
     @Override
@@ -432,14 +646,91 @@ public class AppointmentServiceImpl implements AppointmentService {
                                                                                       String petName,
                                                                                       String petOwnerName,
                                                                                       org.springframework.data.domain.Pageable pageable) {
-        return repo.searchPastAppointmentsByOwner(ownerId, petName, petOwnerName, pageable)
-                .map(this::toDto);
+        return withDtos(repo.searchPastAppointmentIdsByOwner(ownerId, SearchText.normalize(petName), SearchText.normalize(petOwnerName), pageable));
     }
 
     @Override
     public org.springframework.data.domain.Page<AppointmentDTO> vetPastAppointments(UUID vetId, String petName, String petOwnerName, org.springframework.data.domain.Pageable pageable) {
-        return repo.searchPastAppointmentsByVet(vetId, petName, petOwnerName, pageable)
-                .map(this::toDto);
+        return withDtos(repo.searchPastAppointmentIdsByVet(vetId, SearchText.normalize(petName), SearchText.normalize(petOwnerName), pageable));
+    }
+
+    @Override
+    public AppointmentSliceDTO clinicPastAppointmentsAfter(UUID clinicId, OffsetDateTime from, OffsetDateTime to, String petName, String petOwnerName, String cursor, int size, boolean includeTotal) {
+        AppointmentCursor after = AppointmentCursor.decode(cursor);
+        int limit = sliceSize(size);
+        List<UUID> ids = repo.seekPastAppointmentIds(clinicId, from, to, SearchText.normalize(petName), SearchText.normalize(petOwnerName), after.appointmentDate(), after.id(), limit + 1);
+        Long total = includeTotal ? repo.searchPastAppointmentIds(clinicId, from, to, SearchText.normalize(petName), SearchText.normalize(petOwnerName), PageRequest.of(0, 1)).getTotalElements() : null;
+        return toSlice(ids, limit, total);
+    }
+
+    @Override
+    public AppointmentSliceDTO ownerPastAppointmentsAfter(UUID ownerId, String petName, String petOwnerName, String cursor, int size, boolean includeTotal) {
+        AppointmentCursor after = AppointmentCursor.decode(cursor);
+        int limit = sliceSize(size);
+        List<UUID> ids = repo.seekPastAppointmentIdsByOwner(ownerId, SearchText.normalize(petName), SearchText.normalize(petOwnerName), after.appointmentDate(), after.id(), limit + 1);
+        Long total = includeTotal ? repo.searchPastAppointmentIdsByOwner(ownerId, SearchText.normalize(petName), SearchText.normalize(petOwnerName), PageRequest.of(0, 1)).getTotalElements() : null;
+        return toSlice(ids, limit, total);
+    }
+
+    @Override
+    public AppointmentSliceDTO vetPastAppointmentsAfter(UUID vetId, String petName, String petOwnerName, String cursor, int size, boolean includeTotal) {
+        AppointmentCursor after = AppointmentCursor.decode(cursor);
+        int limit = sliceSize(size);
+        List<UUID> ids = repo.seekPastAppointmentIdsByVet(vetId, SearchText.normalize(petName), SearchText.normalize(petOwnerName), after.appointmentDate(), after.id(), limit + 1);
+        Long total = includeTotal ? repo.searchPastAppointmentIdsByVet(vetId, SearchText.normalize(petName), SearchText.normalize(petOwnerName), PageRequest.of(0, 1)).getTotalElements() : null;
+        return toSlice(ids, limit, total);
+    }
+
+    @Override
+    public List<AppointmentDTO> searchClinicAppointmentsByName(UUID clinicId, String query, int limit) {
+        String term = SearchText.normalize(query);
+        if (term == null) {
+            return List.of();
+        }
+        int max = sliceSize(limit);
+        List<UUID> ids = trigramSearch.isAvailable()
+                ? repo.rankClinicAppointmentIdsByName(clinicId, term, max)
+                : repo.matchClinicAppointmentIdsByName(clinicId, term, PageRequest.of(0, max));
+        return orderedDtos(ids);
+    }
+
+    private static int sliceSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+    }
+
+    /* ids holds up to limit + 1 rows; the extra one only tells us another slice exists */
+    private AppointmentSliceDTO toSlice(List<UUID> ids, int limit, Long total) {
+        List<UUID> pageIds = ids.size() > limit ? ids.subList(0, limit) : ids;
+        List<AppointmentDTO> items = orderedDtos(pageIds);
+        String nextCursor = null;
+        if (ids.size() > limit && !items.isEmpty()) {
+            AppointmentDTO last = items.get(items.size() - 1);
+            nextCursor = new AppointmentCursor(last.appointmentDate(), last.id()).encode();
+        }
+        return new AppointmentSliceDTO(items, nextCursor, total);
+    }
+
+    private List<AppointmentDTO> orderedDtos(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, AppointmentDTO> byId = new HashMap<>();
+        for (AppointmentDTO dto : repo.findDtosByIds(ids)) {
+            byId.put(dto.id(), dto);
+        }
+        return ids.stream().map(byId::get).filter(java.util.Objects::nonNull).toList();
+    }
+
+    /* Swaps a page of ids for DTOs loaded by one joined query, keeping the page order */
+    private org.springframework.data.domain.Page<AppointmentDTO> withDtos(org.springframework.data.domain.Page<UUID> ids) {
+        if (ids.isEmpty()) {
+            return ids.map(id -> null);
+        }
+        Map<UUID, AppointmentDTO> byId = new HashMap<>();
+        for (AppointmentDTO dto : repo.findDtosByIds(ids.getContent())) {
+            byId.put(dto.id(), dto);
+        }
+        return ids.map(byId::get);
     }
 
     @Override
@@ -452,6 +743,24 @@ public class AppointmentServiceImpl implements AppointmentService {
         activityLogService.logActivity(userId, clinicId, vetId, action, details, appointmentId, extraJson);
     }
 
+    private AppointmentDTO toLockedDto(LockedSlotDTO lock) {
+        return new AppointmentDTO(
+                null, // id
+                null, // petId
+                null, // petName
+                lock.vetId(),
+                null, // vetName
+                null, // clinicId
+                lock.appointmentTime(),
+                "LOCKED", // status
+                "DURATION:" + lock.durationMinutes(),
+                null, // petOwnerId
+                null, // petOwnerName
+                null, // petOwnerPhone
+                null  // type
+        );
+    }
+
     /* mapper */
     private AppointmentDTO toDto(Appointment a) {
         return new AppointmentDTO(
@@ -1,5 +1,6 @@
 package org.example.backend.service.impl;
 
+import org.example.backend.cache.ClinicAccessCache;
 import org.example.backend.data.ClinicAccount;
 import org.example.backend.data.ClinicAccountId;
 import org.example.backend.data.User;
@@ -8,8 +9,8 @@ import org.example.backend.dto.ClinicAccountDTO;
 import org.example.backend.exception.ClinicAccountException;
 import org.example.backend.repository.ClinicAccountRepository;
 import org.example.backend.repository.UserRepository;
+import org.example.backend.repository.VetClinicMembershipRepository;
 import org.example.backend.repository.VeterinaryClinicRepository;
-import org.example.backend.repository.VetRepository;
 import org.example.backend.service.ClinicAccountService;
 import org.example.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,7 +28,8 @@ public class ClinicAccountServiceImpl implements ClinicAccountService {
     private final UserRepository userRepository;
     private final VeterinaryClinicRepository clinicRepository;
     private final UserService userService;
-    private final VetRepository vetRepository;
+    private final VetClinicMembershipRepository membershipRepository;
+    private final ClinicAccessCache clinicAccessCache;
 
     @Autowired
     public ClinicAccountServiceImpl(
@@ -35,12 +37,14 @@ public class ClinicAccountServiceImpl implements ClinicAccountService {
             UserRepository userRepository,
             VeterinaryClinicRepository clinicRepository,
             UserService userService,
-            VetRepository vetRepository) {
+            VetClinicMembershipRepository membershipRepository,
+            ClinicAccessCache clinicAccessCache) {
         this.clinicAccountRepository = clinicAccountRepository;
         this.userRepository = userRepository;
         this.clinicRepository = clinicRepository;
         this.userService = userService;
-        this.vetRepository = vetRepository;
+        this.membershipRepository = membershipRepository;
+        this.clinicAccessCache = clinicAccessCache;
     }
 
     @Override
@@ -63,7 +67,9 @@ public class ClinicAccountServiceImpl implements ClinicAccountService {
             account.setUser(user);
             account.setStaffRole(ClinicAccount.StaffRole.valueOf(staffRole.toUpperCase()));
 
-            return ClinicAccountDTO.fromEntity(clinicAccountRepository.save(account));
+            ClinicAccount saved = clinicAccountRepository.save(account);
+            clinicAccessCache.evict(userId, clinicId);
+            return ClinicAccountDTO.fromEntity(saved);
         } catch (IllegalArgumentException e) {
             throw new ClinicAccountException("Invalid staff role: " + staffRole);
         }
@@ -93,6 +99,7 @@ public class ClinicAccountServiceImpl implements ClinicAccountService {
             throw new ClinicAccountException("Clinic account not found");
         }
         clinicAccountRepository.deleteById(id);
+        clinicAccessCache.evict(userId, clinicId);
     }
 
     @Override
@@ -110,20 +117,18 @@ public class ClinicAccountServiceImpl implements ClinicAccountService {
         }
     }
 
+    /* Evaluated by @PreAuthorize on every clinic endpoint, so the decision is memoized per (account, clinic) */
     @Override
     public boolean hasClinicAccess(String identifier, UUID clinicId) {
+        UUID accountId;
         try {
-            UUID userId = UUID.fromString(identifier);
-            if (clinicAccountRepository.existsById_UserIdAndId_ClinicId(userId, clinicId)) return true;
-        } catch (IllegalArgumentException ex) {
-            return false;
-        }
-        try {
-            UUID vetId = UUID.fromString(identifier);
-            return vetRepository.findByClinic(clinicId).stream().anyMatch(v -> v.getId().equals(vetId));
+            accountId = UUID.fromString(identifier);
         } catch (IllegalArgumentException ex) {
             return false;
         }
+        return clinicAccessCache.get(accountId, clinicId, (id, clinic) ->
+                clinicAccountRepository.existsById_UserIdAndId_ClinicId(id, clinic)
+                        || membershipRepository.existsByVet_IdAndClinic_Id(id, clinic));
     }
 
     @Override
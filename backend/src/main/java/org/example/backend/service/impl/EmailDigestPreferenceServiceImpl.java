@@ -0,0 +1,50 @@
+package org.example.backend.service.impl;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.data.EmailDigestPreference;
+import org.example.backend.data.User;
+import org.example.backend.data.Vet;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.repository.EmailDigestPreferenceRepository;
+import org.example.backend.repository.UserRepository;
+import org.example.backend.repository.VetRepository;
+import org.example.backend.service.EmailDigestPreferenceService;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/* Preferences are keyed by address because that is all an outbox row knows about its recipient */
+@Service
+@RequiredArgsConstructor
+public class EmailDigestPreferenceServiceImpl implements EmailDigestPreferenceService {
+
+    private final EmailDigestPreferenceRepository preferenceRepo;
+    private final UserRepository userRepo;
+    private final VetRepository vetRepo;
+
+    @Override
+    public EmailDigestPreference.Mode getMode(UUID accountId) {
+        return preferenceRepo.findById(emailOf(accountId))
+                .map(EmailDigestPreference::getMode)
+                .orElse(EmailDigestPreference.Mode.IMMEDIATE);
+    }
+
+    @Override
+    @Transactional
+    public EmailDigestPreference.Mode setMode(UUID accountId, EmailDigestPreference.Mode mode) {
+        String email = emailOf(accountId);
+        if (mode == EmailDigestPreference.Mode.IMMEDIATE) {
+            preferenceRepo.deleteById(email);
+        } else {
+            preferenceRepo.save(new EmailDigestPreference(email, mode));
+        }
+        return mode;
+    }
+
+    private String emailOf(UUID accountId) {
+        return userRepo.findById(accountId).map(User::getEmail)
+                .or(() -> vetRepo.findById(accountId).map(Vet::getEmail))
+                .orElseThrow(() -> new ResourceNotFoundException("Account", accountId));
+    }
+}
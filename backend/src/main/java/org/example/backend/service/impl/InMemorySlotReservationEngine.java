@@ -0,0 +1,232 @@
+package org.example.backend.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.data.AppointmentLock;
+import org.example.backend.data.Vet;
+import org.example.backend.dto.LockedSlotDTO;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.repository.VetRepository;
+import org.example.backend.service.SlotReservationEngine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps reservations in process: one skip list per vet, acquired with CAS, expired by a hashed timer wheel.
+ * Nothing is written to the database until the slot is booked, so this engine is only correct when a single
+ * backend instance serves bookings.
+ */
+@Service
+@ConditionalOnProperty(name = "appointments.lock-engine", havingValue = "memory")
+public class InMemorySlotReservationEngine implements SlotReservationEngine {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 512;
+
+    private final VetRepository vetRepository;
+    private final Counter evictions;
+
+    private final Map<UUID, ConcurrentSkipListMap<Instant, AppointmentLock>> slotsByVet = new ConcurrentHashMap<>();
+    private final Map<UUID, SlotKey> slotsByUser = new ConcurrentHashMap<>();
+    private final Map<UUID, SlotKey> slotsById = new ConcurrentHashMap<>();
+    private final Set<UUID> knownVets = ConcurrentHashMap.newKeySet();
+
+    private final Queue<WheelEntry>[] wheel;
+    private final AtomicLong lastTick;
+
+    @SuppressWarnings("unchecked")
+    public InMemorySlotReservationEngine(VetRepository vetRepository, MeterRegistry meterRegistry) {
+        this.vetRepository = vetRepository;
+        this.evictions = meterRegistry.counter("appointment.locks.evicted", "engine", "memory");
+        this.wheel = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastTick = new AtomicLong(System.currentTimeMillis() / TICK_MILLIS);
+    }
+
+    @Override
+    public AppointmentLock reserve(UUID vetId, OffsetDateTime appointmentTime, UUID userId, int durationMinutes, OffsetDateTime expiresAt) {
+        ensureVetExists(vetId);
+
+        SlotKey key = new SlotKey(vetId, appointmentTime.toInstant());
+        AppointmentLock candidate = AppointmentLock.builder()
+                .id(UUID.randomUUID())
+                .vet(Vet.builder().id(vetId).build())
+                .userId(userId)
+                .appointmentTime(appointmentTime)
+                .expiresAt(expiresAt)
+                .durationMinutes(durationMinutes)
+                .build();
+
+        ConcurrentSkipListMap<Instant, AppointmentLock> slots = slotsByVet.computeIfAbsent(vetId, id -> new ConcurrentSkipListMap<>());
+        Instant now = Instant.now();
+        AppointmentLock current = slots.putIfAbsent(key.slot(), candidate);
+        while (current != null) {
+            if (!isExpired(current, now)) {
+                throw new DataIntegrityViolationException("This time slot is temporarily reserved by another user.");
+            }
+            if (slots.replace(key.slot(), current, candidate)) {
+                forget(current);
+                break;
+            }
+            current = slots.putIfAbsent(key.slot(), candidate);
+        }
+
+        slotsById.put(candidate.getId(), key);
+        SlotKey previous = slotsByUser.put(userId, key);
+        if (previous != null && !previous.equals(key)) {
+            removeIf(previous, lock -> lock.getUserId().equals(userId));
+        }
+        schedule(key, candidate);
+        return candidate;
+    }
+
+    @Override
+    public Optional<AppointmentLock> find(UUID vetId, OffsetDateTime appointmentTime) {
+        ConcurrentSkipListMap<Instant, AppointmentLock> slots = slotsByVet.get(vetId);
+        return slots == null ? Optional.empty() : Optional.ofNullable(slots.get(appointmentTime.toInstant()));
+    }
+
+    @Override
+    public Optional<AppointmentLock> findByUser(UUID userId) {
+        SlotKey key = slotsByUser.get(userId);
+        if (key == null) return Optional.empty();
+        return lockAt(key).filter(lock -> lock.getUserId().equals(userId) && !isExpired(lock, Instant.now()));
+    }
+
+    @Override
+    public List<LockedSlotDTO> activeSlots(UUID vetId, OffsetDateTime from, OffsetDateTime to) {
+        ConcurrentSkipListMap<Instant, AppointmentLock> slots = slotsByVet.get(vetId);
+        if (slots == null) return List.of();
+        Instant now = Instant.now();
+        return slots.subMap(from.toInstant(), true, to.toInstant(), true).values().stream()
+                .filter(lock -> !isExpired(lock, now))
+                .map(lock -> new LockedSlotDTO(vetId, lock.getAppointmentTime(), lock.getDurationMinutes()))
+                .toList();
+    }
+
+    @Override
+    public List<LockedSlotDTO> activeSlots(Collection<UUID> vetIds, OffsetDateTime from, OffsetDateTime to) {
+        return vetIds.stream()
+                .flatMap(vetId -> activeSlots(vetId, from, to).stream())
+                .toList();
+    }
+
+    @Override
+    public void release(UUID lockId, UUID userId) {
+        SlotKey key = slotsById.get(lockId);
+        if (key == null) return;
+        lockAt(key).filter(lock -> lock.getId().equals(lockId)).ifPresent(lock -> {
+            if (!lock.getUserId().equals(userId)) {
+                throw new SecurityException("You do not have permission to release this lock.");
+            }
+            removeIf(key, candidate -> candidate == lock);
+        });
+    }
+
+    /* The slot stays reserved until the appointment row is committed; on rollback the lock simply runs out */
+    @Override
+    public void complete(AppointmentLock lock) {
+        SlotKey key = new SlotKey(lock.getVet().getId(), lock.getAppointmentTime().toInstant());
+        afterCommit(() -> removeIf(key, candidate -> candidate.getId().equals(lock.getId())));
+    }
+
+    /* Advances the wheel one bucket per elapsed tick and drops the reservations that ran out in it */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void advanceWheel() {
+        long nowTick = System.currentTimeMillis() / TICK_MILLIS;
+        long from = lastTick.getAndSet(nowTick);
+        Instant now = Instant.now();
+        for (long tick = Math.max(from + 1, nowTick - WHEEL_SIZE + 1); tick <= nowTick; tick++) {
+            Queue<WheelEntry> bucket = wheel[(int) (tick % WHEEL_SIZE)];
+            for (int pending = bucket.size(); pending > 0; pending--) {
+                WheelEntry entry = bucket.poll();
+                if (entry == null) break;
+                if (entry.tick() > nowTick) {
+                    bucket.add(entry);
+                    continue;
+                }
+                if (removeIf(entry.key(), lock -> lock.getId().equals(entry.lockId()) && isExpired(lock, now))) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private void ensureVetExists(UUID vetId) {
+        if (knownVets.contains(vetId)) return;
+        if (!vetRepository.existsById(vetId)) {
+            throw new ResourceNotFoundException("Vet", vetId);
+        }
+        knownVets.add(vetId);
+    }
+
+    private void schedule(SlotKey key, AppointmentLock lock) {
+        long expiryTick = (lock.getExpiresAt().toInstant().toEpochMilli() + TICK_MILLIS - 1) / TICK_MILLIS;
+        long tick = Math.max(expiryTick, lastTick.get() + 1);
+        wheel[(int) (tick % WHEEL_SIZE)].add(new WheelEntry(key, lock.getId(), tick));
+    }
+
+    private Optional<AppointmentLock> lockAt(SlotKey key) {
+        ConcurrentSkipListMap<Instant, AppointmentLock> slots = slotsByVet.get(key.vetId());
+        return slots == null ? Optional.empty() : Optional.ofNullable(slots.get(key.slot()));
+    }
+
+    private boolean removeIf(SlotKey key, java.util.function.Predicate<AppointmentLock> condition) {
+        Optional<AppointmentLock> match = lockAt(key).filter(condition);
+        if (match.isPresent() && slotsByVet.get(key.vetId()).remove(key.slot(), match.get())) {
+            forget(match.get());
+            return true;
+        }
+        return false;
+    }
+
+    private void forget(AppointmentLock lock) {
+        SlotKey key = slotsById.remove(lock.getId());
+        if (key != null) {
+            slotsByUser.remove(lock.getUserId(), key);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static boolean isExpired(AppointmentLock lock, Instant now) {
+        return lock.getExpiresAt().toInstant().isBefore(now);
+    }
+
+    private record SlotKey(UUID vetId, Instant slot) {
+    }
+
+    private record WheelEntry(SlotKey key, UUID lockId, long tick) {
+    }
+}
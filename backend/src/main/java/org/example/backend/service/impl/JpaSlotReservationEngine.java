@@ -0,0 +1,125 @@
+package org.example.backend.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.example.backend.data.AppointmentLock;
+import org.example.backend.data.Vet;
+import org.example.backend.dto.LockedSlotDTO;
+import org.example.backend.exception.ResourceNotFoundException;
+import org.example.backend.repository.AppointmentLockRepository;
+import org.example.backend.repository.VetRepository;
+import org.example.backend.service.SlotReservationEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "appointments.lock-engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaSlotReservationEngine implements SlotReservationEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(JpaSlotReservationEngine.class);
+
+    private final AppointmentLockRepository lockRepository;
+    private final VetRepository vetRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${appointments.lock-sweep-batch-size:500}")
+    private int sweepBatchSize;
+
+    @Override
+    @Transactional
+    public AppointmentLock reserve(UUID vetId, OffsetDateTime appointmentTime, UUID userId, int durationMinutes, OffsetDateTime expiresAt) {
+        Optional<AppointmentLock> existingLock = lockRepository.findByVetIdAndAppointmentTime(vetId, appointmentTime);
+        if (existingLock.isPresent() && existingLock.get().getExpiresAt().isAfter(OffsetDateTime.now())) {
+            throw new DataIntegrityViolationException("This time slot is temporarily reserved by another user.");
+        }
+
+        existingLock.ifPresent(lockRepository::delete);
+        lockRepository.findByUserId(userId).ifPresent(lockRepository::delete);
+
+        Vet vet = vetRepository.findById(vetId)
+                .orElseThrow(() -> new ResourceNotFoundException("Vet", vetId));
+
+        AppointmentLock newLock = AppointmentLock.builder()
+                .vet(vet)
+                .userId(userId)
+                .appointmentTime(appointmentTime)
+                .expiresAt(expiresAt)
+                .durationMinutes(durationMinutes)
+                .build();
+
+        return lockRepository.save(newLock);
+    }
+
+    @Override
+    public Optional<AppointmentLock> find(UUID vetId, OffsetDateTime appointmentTime) {
+        return lockRepository.findByVetIdAndAppointmentTime(vetId, appointmentTime);
+    }
+
+    @Override
+    public Optional<AppointmentLock> findByUser(UUID userId) {
+        return lockRepository.findByUserId(userId)
+                .filter(lock -> !lock.getExpiresAt().isBefore(OffsetDateTime.now()));
+    }
+
+    @Override
+    public List<LockedSlotDTO> activeSlots(UUID vetId, OffsetDateTime from, OffsetDateTime to) {
+        return lockRepository.findActiveSlotsForVet(vetId, from, to, OffsetDateTime.now());
+    }
+
+    @Override
+    public List<LockedSlotDTO> activeSlots(Collection<UUID> vetIds, OffsetDateTime from, OffsetDateTime to) {
+        if (vetIds.isEmpty()) return List.of();
+        return lockRepository.findActiveSlotsForVets(vetIds, from, to, OffsetDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public void release(UUID lockId, UUID userId) {
+        lockRepository.findById(lockId).ifPresent(lock -> {
+            if (!lock.getUserId().equals(userId)) {
+                throw new SecurityException("You do not have permission to release this lock.");
+            }
+            lockRepository.delete(lock);
+        });
+    }
+
+    @Override
+    @Transactional
+    public void complete(AppointmentLock lock) {
+        lockRepository.delete(lock);
+    }
+
+    /* Stale locks never block a reservation (reserve() replaces them), so the sweep only keeps the table small */
+    @Scheduled(fixedDelayString = "${appointments.lock-sweep-interval-ms:60000}")
+    public void cleanupExpiredLocks() {
+        long started = System.nanoTime();
+        OffsetDateTime now = OffsetDateTime.now();
+        int evicted = 0;
+        int deleted;
+        do {
+            deleted = lockRepository.deleteExpiredBatch(now, sweepBatchSize);
+            evicted += deleted;
+        } while (deleted == sweepBatchSize);
+
+        Duration took = Duration.ofNanos(System.nanoTime() - started);
+        meterRegistry.counter("appointment.locks.evicted", "engine", "jpa").increment(evicted);
+        meterRegistry.timer("appointment.locks.sweep", "engine", "jpa").record(took);
+        if (evicted > 0) {
+            log.info("Evicted {} expired appointment locks in {} ms", evicted, took.toMillis());
+        }
+    }
+}
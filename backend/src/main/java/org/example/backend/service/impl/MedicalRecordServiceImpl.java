@@ -6,14 +6,21 @@ import org.example.backend.dto.MedicalRecordDTO;
 import org.example.backend.googleApi.CloudStorageService;
 import org.example.backend.repository.*;
 import org.example.backend.service.AppointmentService;
+import org.example.backend.service.ClinicAccountService;
 import org.example.backend.service.EmailService;
 import org.example.backend.service.MedicalRecordService;
+import org.example.backend.service.StoredBlobService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -28,6 +35,9 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
     private final CloudStorageService cloudStorageService;
     private final AppointmentService appointmentService;
     private final EmailService emailService;
+    private final StoredBlobService storedBlobService;
+    private final ClinicAccountService clinicAccountService;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${bucket-value}")
     private String bucket;
@@ -49,104 +59,117 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
         );
     }
 
+    /*
+     * Hashing and uploading a large file takes a while, so it happens before the transaction; the transaction only
+     * references the staged blob and saves the records. If the blob sweeper collected the object in between, the
+     * file is staged once more.
+     */
     @Override
     public MedicalRecordDTO uploadMedicalRecord(UUID petId, UUID uploaderId, MultipartFile file, boolean isClinic, UUID clinicId, UUID vetId) {
-        Pet pet = petRepo.findById(petId).orElseThrow(() -> new IllegalArgumentException("Pet not found"));
-        String petName = pet.getName();
-        String fileName = file.getOriginalFilename();
-        String gcsPath;
-        User uploaderUser = null;
-        Vet vet = null;
-        VeterinaryClinic clinic = null;
-        User petOwner = pet.getOwner();
-
-        if (isClinic) {
-            clinic = clinicRepo.findById(clinicId).orElseThrow(() -> new IllegalArgumentException("Clinic not found"));
-            if (vetId != null) {
-                vet = vetRepo.findById(vetId).orElse(null);
-            } else {
-                if (uploaderId != null) {
-                    uploaderUser = userRepo.findById(uploaderId).orElse(null);
-                }
-            }
-            gcsPath = "clinic-" + clinicId + "/pets/" + petName + "/records/" + fileName;
-        } else {
-            uploaderUser = userRepo.findById(uploaderId).orElseThrow(() -> new IllegalArgumentException("User not found"));
-            gcsPath = uploaderUser.getEmail() + "/pets/" + petName + "/records/" + fileName;
+        if (!petRepo.existsById(petId)) {
+            throw new IllegalArgumentException("Pet not found");
         }
+        try {
+            return saveMedicalRecord(petId, uploaderId, file, isClinic, clinicId, vetId, stage(file));
+        } catch (StoredBlobService.BlobCollectedException e) {
+            return saveMedicalRecord(petId, uploaderId, file, isClinic, clinicId, vetId, stage(file));
+        }
+    }
 
+    private StoredBlobService.Staged stage(MultipartFile file) {
         try {
-            cloudStorageService.createFolderIfMissing(bucket, gcsPath.substring(0, gcsPath.lastIndexOf('/')));
-            cloudStorageService.uploadObjectFromMemory(bucket, gcsPath, file.getBytes());
+            return storedBlobService.stage(file, file.getContentType());
         } catch (IOException e) {
             throw new RuntimeException("Failed to upload file to GCS", e);
         }
+    }
 
-        MedicalRecord record = MedicalRecord.builder()
-                .pet(pet)
-                .vet(vet)
-                .clinic(clinic)
-                .uploaderUser(uploaderUser)
-                .fileName(fileName)
-                .gcsPath(gcsPath)
-                .createdAt(java.time.OffsetDateTime.now())
-                .build();
+    private MedicalRecordDTO saveMedicalRecord(UUID petId, UUID uploaderId, MultipartFile file, boolean isClinic, UUID clinicId, UUID vetId,
+                                               StoredBlobService.Staged staged) {
+        return transactionTemplate.execute(status -> {
+            Pet pet = petRepo.findById(petId).orElseThrow(() -> new IllegalArgumentException("Pet not found"));
+            String petName = pet.getName();
+            String fileName = file.getOriginalFilename();
+            User uploaderUser = null;
+            Vet vet = null;
+            VeterinaryClinic clinic = null;
+            User petOwner = pet.getOwner();
+
+            if (isClinic) {
+                clinic = clinicRepo.findById(clinicId).orElseThrow(() -> new IllegalArgumentException("Clinic not found"));
+                if (vetId != null) {
+                    vet = vetRepo.findById(vetId).orElse(null);
+                } else {
+                    if (uploaderId != null) {
+                        uploaderUser = userRepo.findById(uploaderId).orElse(null);
+                    }
+                }
+            } else {
+                uploaderUser = userRepo.findById(uploaderId).orElseThrow(() -> new IllegalArgumentException("User not found"));
+            }
 
-        MedicalRecord savedRecord = recordRepo.save(record);
+            /* A clinic upload is shared with the owner as a second record over the same blob, not a copied object */
+            boolean sharedWithOwner = isClinic && petOwner != null;
+            StoredBlob blob = storedBlobService.retain(staged, sharedWithOwner ? 2 : 1);
 
-        if (isClinic && petOwner != null) {
-            try {
-                String ownerGcsPath = petOwner.getEmail() + "/pets/" + petName + "/records/" + fileName;
+            MedicalRecord record = MedicalRecord.builder()
+                    .pet(pet)
+                    .vet(vet)
+                    .clinic(clinic)
+                    .uploaderUser(uploaderUser)
+                    .fileName(fileName)
+                    .gcsPath(blob.getObjectName())
+                    .blob(blob)
+                    .createdAt(java.time.OffsetDateTime.now())
+                    .build();
 
-                cloudStorageService.createFolderIfMissing(bucket, ownerGcsPath.substring(0, ownerGcsPath.lastIndexOf('/')));
-                cloudStorageService.copyObject(bucket, gcsPath, bucket, ownerGcsPath);
+            MedicalRecord savedRecord = recordRepo.save(record);
 
+            if (sharedWithOwner) {
                 MedicalRecord sharedRecord = MedicalRecord.builder()
                         .pet(pet)
                         .vet(vet)
                         .clinic(clinic)
                         .uploaderUser(uploaderUser)
                         .fileName(fileName)
-                        .gcsPath(ownerGcsPath)
+                        .gcsPath(blob.getObjectName())
+                        .blob(blob)
                         .createdAt(java.time.OffsetDateTime.now())
                         .build();
 
                 recordRepo.save(sharedRecord);
-
-            } catch (Exception e) {
-                System.err.println("Failed to create shared copy for pet owner: " + e.getMessage());
             }
-        }
 
-        if (isClinic && petOwner != null) {
-            try {
-                String uploaderName = vet != null ? vet.getFullName() :
-                        (uploaderUser != null ? uploaderUser.getFullName() : "Veterinary Staff");
-                String clinicName = clinic != null ? clinic.getName() : "Veterinary Clinic";
-
-                java.util.Map<String, Object> model = java.util.Map.of(
-                        "userName", petOwner.getFullName(),
-                        "petName", petName,
-                        "fileName", fileName,
-                        "uploaderName", uploaderName,
-                        "clinicName", clinicName,
-                        "uploadDate", java.time.OffsetDateTime.now().toString()
-                );
-
-                emailService.sendTemplateEmail(
-                        petOwner.getEmail(),
-                        "New Medical Record Available for " + petName,
-                        "email/medical_record_uploaded.html",
-                        model,
-                        "MEDICAL_RECORD",
-                        savedRecord.getId()
-                );
-            } catch (Exception e) {
-                System.err.println("Failed to send email notification: " + e.getMessage());
+            if (isClinic && petOwner != null) {
+                try {
+                    String uploaderName = vet != null ? vet.getFullName() :
+                            (uploaderUser != null ? uploaderUser.getFullName() : "Veterinary Staff");
+                    String clinicName = clinic != null ? clinic.getName() : "Veterinary Clinic";
+
+                    java.util.Map<String, Object> model = java.util.Map.of(
+                            "userName", petOwner.getFullName(),
+                            "petName", petName,
+                            "fileName", fileName,
+                            "uploaderName", uploaderName,
+                            "clinicName", clinicName,
+                            "uploadDate", java.time.OffsetDateTime.now().toString()
+                    );
+
+                    emailService.sendTemplateEmail(
+                            petOwner.getEmail(),
+                            "New Medical Record Available for " + petName,
+                            "email/medical_record_uploaded.html",
+                            model,
+                            "MEDICAL_RECORD",
+                            savedRecord.getId()
+                    );
+                } catch (Exception e) {
+                    System.err.println("Failed to send email notification: " + e.getMessage());
+                }
             }
-        }
 
-        return toDto(savedRecord);
+            return toDto(savedRecord);
+        });
     }
 
     @Override
@@ -157,13 +180,37 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
     @Override
     public String generateDownloadUrl(UUID recordId, UUID requesterId, boolean isClinic, UUID clinicId, UUID vetId) {
         MedicalRecord record = recordRepo.findById(recordId).orElseThrow(() -> new IllegalArgumentException("Record not found"));
-        return cloudStorageService.generateSignedUrl(bucket, record.getGcsPath(), 60);
+        return cloudStorageService.generateSignedUrl(bucket, record.getGcsPath(), 60, record.getFileName());
     }
 
+    /* One query for the records, and signatures come from the cache for objects signed recently */
     @Override
+    @Transactional(readOnly = true)
+    public Map<UUID, String> generateDownloadUrls(Collection<UUID> recordIds, String requester, boolean isAdmin) {
+        Map<UUID, String> urls = new LinkedHashMap<>();
+        for (MedicalRecord record : recordRepo.findAllById(recordIds)) {
+            if (isAdmin || canRead(record, requester)) {
+                urls.put(record.getId(), cloudStorageService.generateSignedUrl(bucket, record.getGcsPath(), 60, record.getFileName()));
+            }
+        }
+        return urls;
+    }
+
+    /* The pet's owner, whoever uploaded the record, or an account of the clinic it belongs to */
+    private boolean canRead(MedicalRecord record, String requester) {
+        Pet pet = record.getPet();
+        if (pet != null && pet.getOwner() != null && pet.getOwner().getId().toString().equals(requester)) return true;
+        if (record.getUploaderUser() != null && record.getUploaderUser().getId().toString().equals(requester)) return true;
+        if (record.getVet() != null && record.getVet().getId().toString().equals(requester)) return true;
+        return record.getClinic() != null && clinicAccountService.hasClinicAccess(requester, record.getClinic().getId());
+    }
+
+    @Override
+    @Transactional
     public void deleteMedicalRecord(UUID recordId, UUID requesterId, boolean isClinic, UUID clinicId, UUID vetId) {
         MedicalRecord record = recordRepo.findById(recordId).orElseThrow(() -> new IllegalArgumentException("Record not found"));
-        if (record.getGcsPath() != null) {
+        StoredBlob blob = record.getBlob();
+        if (blob == null && record.getGcsPath() != null) {
             try {
                 cloudStorageService.deleteObject(bucket, record.getGcsPath());
             } catch (Exception e) {
@@ -172,6 +219,9 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
         }
 
         recordRepo.delete(record);
+        if (blob != null) {
+            storedBlobService.release(blob);
+        }
     }
 
     @Override
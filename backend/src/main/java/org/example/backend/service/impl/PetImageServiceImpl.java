@@ -0,0 +1,208 @@
+package org.example.backend.service.impl;
+
+import org.example.backend.data.Pet;
+import org.example.backend.googleApi.CloudStorageService;
+import org.example.backend.repository.PetRepository;
+import org.example.backend.service.PetImageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Fixed-size JPEG thumbnails of pet avatars under avatar/thumbs/. They are re-encoded from decoded pixels, so EXIF
+ * and other metadata of the upload are not carried over. Formats ImageIO cannot decode (webp) keep only the original.
+ */
+@Service
+public class PetImageServiceImpl implements PetImageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PetImageServiceImpl.class);
+
+    private static final int[] SIZES = {64, 256, 512};
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final CloudStorageService cloudStorageService;
+    private final PetRepository petRepository;
+    private final String bucket;
+    private final long maxPixels;
+
+    public PetImageServiceImpl(CloudStorageService cloudStorageService, PetRepository petRepository,
+                               @Value("${bucket-value}") String bucket,
+                               @Value("${pets.avatar.max-pixels:40000000}") long maxPixels) {
+        this.cloudStorageService = cloudStorageService;
+        this.petRepository = petRepository;
+        this.bucket = bucket;
+        this.maxPixels = maxPixels;
+    }
+
+    @Override
+    @Async("imageExecutor")
+    public void generateVariants(UUID petId, String originalObject, Path source) {
+        try {
+            BufferedImage image = decode(source);
+            if (image == null) return;
+
+            List<Integer> stored = new ArrayList<>();
+            for (int size : SIZES) {
+                if (size >= Math.max(image.getWidth(), image.getHeight()) && !stored.isEmpty()) break;
+                String object = variantObject(originalObject, size);
+                byte[] jpeg = encodeJpeg(scaleToFit(image, size));
+                if (cloudStorageService.blobExists(bucket, object)) {
+                    cloudStorageService.deleteObject(bucket, object);
+                }
+                cloudStorageService.uploadObjectFromStream(bucket, object, new ByteArrayInputStream(jpeg), "image/jpeg");
+                stored.add(size);
+            }
+
+            String sizes = stored.stream().map(String::valueOf).collect(Collectors.joining(","));
+            if (petRepository.updateImageVariantSizes(petId, originalObject, sizes) == 0) {
+                /* Replaced while we were working; upload names are unique, so these thumbnails are ours alone */
+                logger.info("Avatar of pet {} changed during thumbnail generation, discarding {}", petId, originalObject);
+                for (int size : stored) {
+                    cloudStorageService.deleteObject(bucket, variantObject(originalObject, size));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to generate thumbnails for {}: {}", originalObject, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(source);
+            } catch (IOException e) {
+                logger.warn("Failed to delete temporary avatar {}", source);
+            }
+        }
+    }
+
+    @Override
+    public void dropVariants(Pet pet) {
+        if (pet.getImageUrl() == null || pet.getImageVariantSizes() == null) return;
+        for (int size : sizesOf(pet)) {
+            cloudStorageService.deleteObject(bucket, variantObject(pet.getImageUrl(), size));
+        }
+        petRepository.clearImageVariantSizes(pet.getId());
+        pet.setImageVariantSizes(null);
+    }
+
+    @Override
+    public void moveVariants(Pet pet, String newImageUrl) {
+        if (pet.getImageUrl() == null || pet.getImageVariantSizes() == null) return;
+        for (int size : sizesOf(pet)) {
+            cloudStorageService.renameObject(bucket, variantObject(pet.getImageUrl(), size), variantObject(newImageUrl, size));
+        }
+    }
+
+    @Override
+    public String objectFor(Pet pet, Integer size) {
+        if (size == null || pet.getImageVariantSizes() == null) return pet.getImageUrl();
+        for (int available : sizesOf(pet)) {
+            if (available >= size) {
+                return variantObject(pet.getImageUrl(), available);
+            }
+        }
+        return pet.getImageUrl();
+    }
+
+    /* email/pets/Rex/avatar/Rex-<upload id>.png -> email/pets/Rex/avatar/thumbs/Rex-<upload id>-256.jpg */
+    private static String variantObject(String original, int size) {
+        int slash = original.lastIndexOf('/');
+        String folder = original.substring(0, slash + 1);
+        String file = original.substring(slash + 1);
+        int dot = file.lastIndexOf('.');
+        String base = dot > 0 ? file.substring(0, dot) : file;
+        return folder + "thumbs/" + base + "-" + size + ".jpg";
+    }
+
+    private static int[] sizesOf(Pet pet) {
+        return Arrays.stream(pet.getImageVariantSizes().split(","))
+                .filter(s -> !s.isBlank())
+                .mapToInt(Integer::parseInt)
+                .sorted()
+                .toArray();
+    }
+
+    /* Reads the dimensions from the header first so an oversized image is rejected before its pixels are allocated */
+    private BufferedImage decode(Path source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    logger.info("Skipping thumbnails for {}: {}x{} exceeds the pixel limit", source, reader.getWidth(0), reader.getHeight(0));
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /* Halves the image until it is within 2x of the target, then scales once more; a single bilinear step aliases badly */
+    private static BufferedImage scaleToFit(BufferedImage image, int box) {
+        double ratio = Math.min(1.0, (double) box / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam params = writer.getDefaultWriteParam();
+            params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            params.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
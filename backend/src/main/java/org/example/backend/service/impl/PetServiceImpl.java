@@ -1,5 +1,6 @@
 package org.example.backend.service.impl;
 
+import org.example.backend.cache.VetCalendarCache;
 import org.example.backend.data.Appointment;
 import org.example.backend.data.MedicalRecord;
 import org.example.backend.data.Pet;
@@ -12,11 +13,14 @@ import org.example.backend.exception.PetNotFoundException;
 import org.example.backend.exception.UserNotFoundException;
 import org.example.backend.googleApi.CloudStorageService;
 import org.example.backend.repository.AppointmentRepository;
+import org.example.backend.repository.AppointmentSeriesRepository;
 import org.example.backend.repository.MedicalRecordRepository;
 import org.example.backend.repository.PetRepository;
 import org.example.backend.repository.UserRepository;
 import org.example.backend.repository.PetStatisticsRepository;
+import org.example.backend.service.PetImageService;
 import org.example.backend.service.PetService;
+import org.example.backend.service.StoredBlobService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,7 +32,10 @@ import org.example.backend.validation.PetValidation;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -44,10 +51,14 @@ public class PetServiceImpl implements PetService {
     private final Environment environment;
     private final PetStatisticsRepository petStatisticsRepository;
     private final PetValidation petValidation;
+    private final VetCalendarCache vetCalendarCache;
+    private final AppointmentSeriesRepository appointmentSeriesRepository;
+    private final StoredBlobService storedBlobService;
+    private final PetImageService petImageService;
     private static final Logger logger = LoggerFactory.getLogger(PetServiceImpl.class);
 
     @Autowired
-    public PetServiceImpl(PetRepository petRepository, UserRepository userRepository, AppointmentRepository appointmentRepository, MedicalRecordRepository medicalRecordRepository, CloudStorageService cloudStorageService, Environment environment, PetStatisticsRepository petStatisticsRepository, PetValidation petValidation) {
+    public PetServiceImpl(PetRepository petRepository, UserRepository userRepository, AppointmentRepository appointmentRepository, MedicalRecordRepository medicalRecordRepository, CloudStorageService cloudStorageService, Environment environment, PetStatisticsRepository petStatisticsRepository, PetValidation petValidation, VetCalendarCache vetCalendarCache, AppointmentSeriesRepository appointmentSeriesRepository, StoredBlobService storedBlobService, PetImageService petImageService) {
         this.petRepository = petRepository;
         this.userRepository = userRepository;
         this.appointmentRepository = appointmentRepository;
@@ -56,6 +67,10 @@ public class PetServiceImpl implements PetService {
         this.environment = environment;
         this.petStatisticsRepository = petStatisticsRepository;
         this.petValidation = petValidation;
+        this.vetCalendarCache = vetCalendarCache;
+        this.appointmentSeriesRepository = appointmentSeriesRepository;
+        this.storedBlobService = storedBlobService;
+        this.petImageService = petImageService;
     }
 
     @Override
@@ -124,16 +139,21 @@ public class PetServiceImpl implements PetService {
         List<Appointment> appointments = appointmentRepository.findByPet_Id(id);
         for (Appointment appt : appointments) {
             appointmentRepository.delete(appt);
+            vetCalendarCache.evict(appt.getVet().getId(), appt.getAppointmentDate());
         }
         appointmentRepository.flush();
+        appointmentSeriesRepository.deleteByPetId(id);
 
         List<MedicalRecord> records = medicalRecordRepository.findByPet_Id(id);
         for (MedicalRecord record : records) {
-            if (record.getGcsPath() != null) {
+            if (record.getBlob() == null && record.getGcsPath() != null) {
                 logger.info("Deleting medical record file from GCS: {}", record.getGcsPath());
                 cloudStorageService.deleteObject(bucket, record.getGcsPath());
             }
             medicalRecordRepository.delete(record);
+            if (record.getBlob() != null) {
+                storedBlobService.release(record.getBlob());
+            }
         }
         medicalRecordRepository.flush();
 
@@ -230,6 +250,19 @@ public class PetServiceImpl implements PetService {
         return petRepository.findByNameAndOwnerId(name, ownerId);
     }
 
+    /* Trusts Pet.imageUrl instead of probing storage per pet; pets without an avatar or not visible are left out */
+    @Override
+    public Map<UUID, String> signedImageUrls(Collection<UUID> petIds, UUID requesterId, boolean anyOwner, Integer size) {
+        String bucket = environment.getProperty("bucket-value");
+        Map<UUID, String> urls = new LinkedHashMap<>();
+        for (Pet pet : petRepository.findAllById(petIds)) {
+            if (pet.getImageUrl() == null || pet.getImageUrl().isEmpty()) continue;
+            if (!anyOwner && !pet.getOwner().getId().equals(requesterId)) continue;
+            urls.put(pet.getId(), cloudStorageService.generateSignedUrl(bucket, petImageService.objectFor(pet, size), 60));
+        }
+        return urls;
+    }
+
     @Override
     public Pet findById(UUID id) {
         return petRepository.findById(id).orElseThrow(() -> new PetNotFoundException("Pet not found"));
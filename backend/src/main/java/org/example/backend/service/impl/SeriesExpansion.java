@@ -0,0 +1,70 @@
+package org.example.backend.service.impl;
+
+import org.example.backend.data.AppointmentSeries;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Expands a series only inside a window, jumping straight to the first occurrence instead of walking from startsAt */
+final class SeriesExpansion {
+
+    static final int MAX_OCCURRENCES_PER_WINDOW = 1_000;
+
+    private SeriesExpansion() {
+    }
+
+    static List<OffsetDateTime> between(AppointmentSeries series, OffsetDateTime from, OffsetDateTime to) {
+        List<OffsetDateTime> occurrences = new ArrayList<>();
+        if (to.isBefore(from)) return occurrences;
+
+        long index = firstIndexAtOrAfter(series, from);
+        while (occurrences.size() < MAX_OCCURRENCES_PER_WINDOW) {
+            if (series.getCount() != null && index >= series.getCount()) break;
+            OffsetDateTime at = occurrence(series, index);
+            if (at.isAfter(to)) break;
+            if (series.getUntil() != null && at.isAfter(series.getUntil())) break;
+            occurrences.add(at);
+            index++;
+        }
+        return occurrences;
+    }
+
+    static boolean isOccurrence(AppointmentSeries series, OffsetDateTime at) {
+        return between(series, at, at).stream().anyMatch(candidate -> candidate.isEqual(at));
+    }
+
+    /* Stepped in local time and converted back, so the offset follows DST instead of staying at startsAt's */
+    private static OffsetDateTime occurrence(AppointmentSeries series, long index) {
+        long steps = index * series.getInterval();
+        ZonedDateTime start = series.getStartsAt().atZoneSameInstant(zoneOf(series));
+        ZonedDateTime at = switch (series.getFrequency()) {
+            case DAILY -> start.plusDays(steps);
+            case WEEKLY -> start.plusWeeks(steps);
+            /* Always offset from the start so a 31st does not drift to the 28th after February */
+            case MONTHLY -> start.plusMonths(steps);
+        };
+        return at.toOffsetDateTime();
+    }
+
+    private static ZoneId zoneOf(AppointmentSeries series) {
+        return series.getTimeZone() != null ? ZoneId.of(series.getTimeZone()) : series.getStartsAt().getOffset();
+    }
+
+    private static long firstIndexAtOrAfter(AppointmentSeries series, OffsetDateTime from) {
+        OffsetDateTime start = series.getStartsAt();
+        if (!from.isAfter(start)) return 0;
+        long index = switch (series.getFrequency()) {
+            case DAILY -> Math.ceilDiv(Duration.between(start, from).toMinutes(), 24L * 60 * series.getInterval());
+            case WEEKLY -> Math.ceilDiv(Duration.between(start, from).toMinutes(), 7L * 24 * 60 * series.getInterval());
+            case MONTHLY -> ChronoUnit.MONTHS.between(start, from) / series.getInterval();
+        };
+        while (index > 0 && !occurrence(series, index - 1).isBefore(from)) index--;
+        while (occurrence(series, index).isBefore(from)) index++;
+        return index;
+    }
+}
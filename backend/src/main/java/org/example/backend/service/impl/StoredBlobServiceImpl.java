@@ -0,0 +1,119 @@
+package org.example.backend.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.backend.data.StoredBlob;
+import org.example.backend.googleApi.CloudStorageService;
+import org.example.backend.repository.StoredBlobRepository;
+import org.example.backend.service.StoredBlobService;
+import org.example.backend.storage.ContentHash;
+import org.example.backend.storage.StoredObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage under blobs/. The content is hashed first (multipart parts are already spooled to disk,
+ * so this is a local read), which lets a duplicate skip the upload entirely instead of copying the object.
+ * Staging records a tombstone and uploads before any transaction; referencing only locks the stored_blobs row.
+ * Objects are only deleted by collectGarbage while it holds the row lock, so a concurrent retain either sees the
+ * tombstone and keeps the object alive, or sees no row and finds out the object is gone.
+ */
+@Service
+@RequiredArgsConstructor
+public class StoredBlobServiceImpl implements StoredBlobService {
+
+    private final StoredBlobRepository blobRepo;
+    private final CloudStorageService cloudStorageService;
+
+    @Value("${bucket-value}")
+    private String bucket;
+
+    @Override
+    public Staged stage(InputStreamSource content, String contentType) throws IOException {
+        ContentHash.Result hash;
+        try (InputStream in = content.getInputStream()) {
+            hash = ContentHash.sha256(in);
+        }
+
+        String objectName = objectName(hash.sha256());
+        /* The tombstone goes in first: if nothing ever retains this content, the sweeper still removes the object */
+        blobRepo.upsertTombstone(hash.sha256(), objectName, hash.size(), contentType, OffsetDateTime.now());
+        if (!cloudStorageService.blobExists(bucket, objectName)) {
+            StoredObject stored;
+            try (InputStream in = content.getInputStream()) {
+                stored = cloudStorageService.uploadObjectFromStream(bucket, objectName, in, contentType);
+            } catch (IOException | RuntimeException e) {
+                /* Lost a race with an upload of the same content, which is just as good */
+                if (!cloudStorageService.blobExists(bucket, objectName)) throw e;
+                stored = null;
+            }
+            if (stored != null && !hash.sha256().equals(stored.sha256())) {
+                cloudStorageService.deleteObject(bucket, objectName);
+                throw new IllegalStateException("Upload content changed while it was being stored");
+            }
+        }
+        return new Staged(hash.sha256(), objectName, hash.size(), contentType);
+    }
+
+    @Override
+    @Transactional
+    public StoredBlob retain(Staged staged, int references) {
+        while (true) {
+            Optional<StoredBlob> existing = blobRepo.findForUpdate(staged.sha256());
+            if (existing.isPresent()) {
+                StoredBlob blob = existing.get();
+                if (blob.getRefCount() <= 0) {
+                    requireObject(staged);
+                }
+                blob.setRefCount(blob.getRefCount() + references);
+                blob.setOrphanedAt(null);
+                return blob;
+            }
+            if (blobRepo.insertIfAbsent(staged.sha256(), staged.objectName(), staged.size(), staged.contentType(), references, OffsetDateTime.now()) > 0) {
+                requireObject(staged);
+                return blobRepo.findById(staged.sha256()).orElseThrow();
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void release(StoredBlob blob) {
+        blobRepo.findForUpdate(blob.getSha256()).ifPresent(locked -> {
+            locked.setRefCount(locked.getRefCount() - 1);
+            if (locked.getRefCount() <= 0) {
+                locked.setOrphanedAt(OffsetDateTime.now());
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public int collectGarbage(OffsetDateTime cutoff, int batchSize) {
+        List<StoredBlob> collectable = blobRepo.lockCollectable(cutoff, batchSize);
+        for (StoredBlob blob : collectable) {
+            cloudStorageService.deleteObject(bucket, blob.getObjectName());
+            blobRepo.delete(blob);
+        }
+        return collectable.size();
+    }
+
+    /* Checked whenever a row is (re)created from nothing or revived from a tombstone */
+    private void requireObject(Staged staged) {
+        if (!cloudStorageService.blobExists(bucket, staged.objectName())) {
+            throw new BlobCollectedException(staged.sha256());
+        }
+    }
+
+    /* Two hex characters of fan-out keep any one listing prefix small */
+    private static String objectName(String sha256) {
+        return "blobs/" + sha256.substring(0, 2) + "/" + sha256;
+    }
+}
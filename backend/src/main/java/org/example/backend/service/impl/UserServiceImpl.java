@@ -1,5 +1,7 @@
 package org.example.backend.service.impl;
 
+import org.example.backend.cache.ClinicAccessCache;
+import org.example.backend.cache.PrincipalCache;
 import org.example.backend.data.User;
 import org.example.backend.dto.UserDTO;
 import org.example.backend.dto.UserWithPetsDTO;
@@ -10,14 +12,17 @@ import org.example.backend.repository.PetRepository;
 import org.example.backend.repository.MedicalRecordRepository;
 import org.example.backend.repository.ClinicAccountRepository;
 import org.example.backend.repository.AppointmentRepository;
+import org.example.backend.repository.RefreshTokenRepository;
 import org.example.backend.service.UserService;
 import org.example.backend.service.PetService;
+import org.example.backend.service.StoredBlobService;
 import org.example.backend.validation.UserValidation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -36,12 +41,18 @@ public class UserServiceImpl implements UserService {
     private final ClinicAccountRepository clinicAccountRepository;
     private final PetService petService;
     private final AppointmentRepository appointmentRepository;
+    private final PrincipalCache principalCache;
+    private final ClinicAccessCache clinicAccessCache;
+    private final StoredBlobService storedBlobService;
+    private final RefreshTokenRepository refreshTokenRepository;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository, UserValidation userValidation, PasswordEncoder passwordEncoder,
                            PetRepository petRepository, MedicalRecordRepository medicalRecordRepository,
                            ClinicAccountRepository clinicAccountRepository, PetService petService,
-                           AppointmentRepository appointmentRepository) {
+                           AppointmentRepository appointmentRepository, PrincipalCache principalCache,
+                           ClinicAccessCache clinicAccessCache, StoredBlobService storedBlobService,
+                           RefreshTokenRepository refreshTokenRepository) {
         this.userRepository = userRepository;
         this.userValidation = userValidation;
         this.passwordEncoder = passwordEncoder;
@@ -50,6 +61,10 @@ public class UserServiceImpl implements UserService {
         this.clinicAccountRepository = clinicAccountRepository;
         this.petService = petService;
         this.appointmentRepository = appointmentRepository;
+        this.principalCache = principalCache;
+        this.clinicAccessCache = clinicAccessCache;
+        this.storedBlobService = storedBlobService;
+        this.refreshTokenRepository = refreshTokenRepository;
     }
 
     @Override
@@ -99,11 +114,15 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(User user) {
         userRepository.delete(user);
+        refreshTokenRepository.revokeAllForSubject(user.getId(), OffsetDateTime.now());
+        principalCache.evict(user.getId());
     }
 
     @Override
     public void deleteUserById(UUID id) {
         userRepository.deleteById(id);
+        refreshTokenRepository.revokeAllForSubject(id, OffsetDateTime.now());
+        principalCache.evict(id);
     }
 
     @Override
@@ -128,6 +147,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User savedUser = userRepository.save(user);
+        principalCache.evict(id);
         return mapToUserDTO(savedUser);
     }
 
@@ -143,9 +163,15 @@ public class UserServiceImpl implements UserService {
         var userRecords = medicalRecordRepository.findByUploaderUser_Id(userId);
         for (var record : userRecords) {
             medicalRecordRepository.delete(record);
+            if (record.getBlob() != null) {
+                storedBlobService.release(record.getBlob());
+            }
         }
         clinicAccountRepository.deleteById_UserId(userId);
         userRepository.deleteById(userId);
+        refreshTokenRepository.revokeAllForSubject(userId, OffsetDateTime.now());
+        principalCache.evict(userId);
+        clinicAccessCache.evictAccount(userId);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package org.example.backend.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.backend.cache.ClinicAccessCache;
 import org.example.backend.data.Vet;
 import org.example.backend.data.VetClinicMembership;
 import org.example.backend.data.VeterinaryClinic;
@@ -26,6 +27,7 @@ public class VetClinicMembershipServiceImpl implements VetClinicMembershipServic
     private final VeterinaryClinicRepository clinicRepo;
     private final ClinicAccountService clinicAccountService;
     private final UserRepository userRepository;
+    private final ClinicAccessCache clinicAccessCache;
 
 
     @Override
@@ -58,11 +60,13 @@ public class VetClinicMembershipServiceImpl implements VetClinicMembershipServic
         link.setRole(role);
 
         repo.save(link);
+        clinicAccessCache.evict(vetId, clinicId);
     }
 
     @Override
     public void remove(UUID vetId, UUID clinicId) {
         repo.deleteByVet_IdAndClinic_Id(vetId, clinicId);
+        clinicAccessCache.evict(vetId, clinicId);
     }
 
     public boolean isOwner(String userId, UUID clinicId) {
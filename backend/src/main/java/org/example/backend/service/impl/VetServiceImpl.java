@@ -1,12 +1,15 @@
 package org.example.backend.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.backend.cache.ClinicAccessCache;
+import org.example.backend.cache.PrincipalCache;
 import org.example.backend.data.Vet;
 import org.example.backend.data.VetClinicMembership;
 import org.example.backend.data.VeterinaryClinic;
 import org.example.backend.dto.VetDTO;
 import org.example.backend.exception.ResourceNotFoundException;
 import org.example.backend.repository.AppointmentRepository;
+import org.example.backend.repository.RefreshTokenRepository;
 import org.example.backend.repository.VetClinicMembershipRepository;
 import org.example.backend.repository.VetRepository;
 import org.example.backend.repository.VeterinaryClinicRepository;
@@ -19,6 +22,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,6 +37,9 @@ public class VetServiceImpl implements VetService {
     private final PasswordEncoder passwordEncoder;
     private final AppointmentRepository appointmentRepository;
     private final VetValidation vetValidation;
+    private final PrincipalCache principalCache;
+    private final ClinicAccessCache clinicAccessCache;
+    private final RefreshTokenRepository refreshTokenRepository;
 
 
     @Override
@@ -108,7 +115,10 @@ public class VetServiceImpl implements VetService {
             membershipRepo.save(link);
         }
 
-        return toDto(vetRepo.save(vet));
+        Vet saved = vetRepo.save(vet);
+        principalCache.evict(id);
+        clinicAccessCache.evictAccount(id);
+        return toDto(saved);
     }
 
     @Override
@@ -123,6 +133,9 @@ public class VetServiceImpl implements VetService {
         }
 
         vetRepo.delete(vet);
+        refreshTokenRepository.revokeAllForSubject(id, OffsetDateTime.now());
+        principalCache.evict(id);
+        clinicAccessCache.evictAccount(id);
     }
 
 
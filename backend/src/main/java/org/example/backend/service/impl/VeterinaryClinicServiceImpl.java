@@ -1,6 +1,8 @@
 package org.example.backend.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.backend.cache.ClinicAccessCache;
+import org.example.backend.cache.VetCalendarCache;
 import org.example.backend.data.ClinicAccount;
 import org.example.backend.data.User;
 import org.example.backend.data.VeterinaryClinic;
@@ -8,6 +10,7 @@ import org.example.backend.dto.CreateClinicRequestDTO;
 import org.example.backend.dto.VeterinaryClinicDTO;
 import org.example.backend.exception.ResourceNotFoundException;
 import org.example.backend.repository.AppointmentRepository;
+import org.example.backend.repository.AppointmentSeriesRepository;
 import org.example.backend.repository.ClinicAccountRepository;
 import org.example.backend.repository.UserRepository;
 import org.example.backend.repository.VeterinaryClinicRepository;
@@ -33,6 +36,9 @@ public class VeterinaryClinicServiceImpl implements VeterinaryClinicService {
     private final UserRepository userRepo;
     private final ClinicAccountService clinicAccountService;
     private final AppointmentRepository appointmentRepo;
+    private final AppointmentSeriesRepository seriesRepo;
+    private final VetCalendarCache vetCalendarCache;
+    private final ClinicAccessCache clinicAccessCache;
 
     @Override
     public VeterinaryClinicDTO getClinic(UUID id) {
@@ -118,11 +124,14 @@ public class VeterinaryClinicServiceImpl implements VeterinaryClinicService {
         }
 
         appointmentRepo.deleteByClinic_Id(id);
+        seriesRepo.deleteByClinicId(id);
+        vetCalendarCache.evictAll();
 
         List<ClinicAccount> clinicAccounts = accountRepo.findById_ClinicId(id);
         accountRepo.deleteAll(clinicAccounts);
 
         clinicRepo.deleteById(id);
+        clinicAccessCache.evictClinic(id);
     }
 
     @Override
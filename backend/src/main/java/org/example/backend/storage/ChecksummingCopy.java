@@ -0,0 +1,35 @@
+package org.example.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Pumps a stream into a channel through one fixed buffer, hashing each chunk on the way, so the heap used by an
+ * upload is the buffer size whatever the file size.
+ */
+final class ChecksummingCopy {
+
+    private ChecksummingCopy() {
+    }
+
+    static StoredObject copy(String name, InputStream in, WritableByteChannel out, int bufferSize) throws IOException {
+        MessageDigest sha256 = ContentHash.newSha256();
+        byte[] chunk = new byte[bufferSize];
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        long size = 0;
+        int read;
+        while ((read = in.readNBytes(chunk, 0, chunk.length)) > 0) {
+            sha256.update(chunk, 0, read);
+            buffer.clear().limit(read);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            size += read;
+        }
+        return new StoredObject(name, size, HexFormat.of().formatHex(sha256.digest()));
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class ContentHash {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private ContentHash() {
+    }
+
+    public record Result(String sha256, long size) {
+    }
+
+    public static Result sha256(InputStream in) throws IOException {
+        MessageDigest digest = newSha256();
+        byte[] chunk = new byte[BUFFER_SIZE];
+        long size = 0;
+        int read;
+        while ((read = in.read(chunk)) > 0) {
+            digest.update(chunk, 0, read);
+            size += read;
+        }
+        return new Result(HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
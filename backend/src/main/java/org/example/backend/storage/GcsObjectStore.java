@@ -0,0 +1,108 @@
+package org.example.backend.storage;
+
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.Storage.BlobListOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "gcs", matchIfMissing = true)
+public class GcsObjectStore implements ObjectStore {
+
+    /* Resumable uploads need a multiple of 256 KiB */
+    private static final int CHUNK_ALIGNMENT = 256 * 1024;
+
+    private final Storage storage;
+    private final int uploadChunkSize;
+
+    public GcsObjectStore(Storage storage, @Value("${storage.upload.chunk-size-bytes:8388608}") int uploadChunkSize) {
+        this.storage = storage;
+        this.uploadChunkSize = Math.max(1, uploadChunkSize / CHUNK_ALIGNMENT) * CHUNK_ALIGNMENT;
+    }
+
+    @Override
+    public boolean exists(String bucket, String object) {
+        return storage.get(bucket, object) != null;
+    }
+
+    @Override
+    public String signedUrl(String bucket, String object, Duration validity, String downloadName) {
+        BlobInfo info = BlobInfo.newBuilder(bucket, object).build();
+        if (downloadName == null) {
+            return storage.signUrl(info, validity.toSeconds(), TimeUnit.SECONDS, Storage.SignUrlOption.withV4Signature()).toString();
+        }
+        /* The override is part of the signed query, so it cannot be changed by whoever holds the URL */
+        Map<String, String> query = Map.of("response-content-disposition", ContentDisposition.attachment().filename(downloadName, StandardCharsets.UTF_8).build().toString());
+        return storage.signUrl(info, validity.toSeconds(), TimeUnit.SECONDS, Storage.SignUrlOption.withV4Signature(), Storage.SignUrlOption.withQueryParams(query)).toString();
+    }
+
+    /*
+     * Streams through a resumable upload one chunk at a time, so heap per upload stays at the chunk size. Closing the
+     * channel is what finalizes the object, so a copy that fails part way leaves the channel open: the session is
+     * abandoned and no truncated object appears to block a retry.
+     */
+    @Override
+    public StoredObject upload(String bucket, String object, InputStream content, String contentType) throws IOException {
+        BlobInfo info = BlobInfo.newBuilder(bucket, object).setContentType(contentType).build();
+        WriteChannel channel = storage.writer(info, Storage.BlobWriteOption.doesNotExist());
+        channel.setChunkSize(uploadChunkSize);
+        StoredObject stored = ChecksummingCopy.copy(object, content, channel, CHUNK_ALIGNMENT);
+        channel.close();
+        return stored;
+    }
+
+    @Override
+    public void createFolder(String bucket, String folderPath) {
+        if (!folderPath.endsWith("/")) folderPath += "/";
+
+        if (!exists(bucket, folderPath)) {
+            storage.create(BlobInfo.newBuilder(bucket, folderPath).setContentType("application/x-directory").build());
+        }
+    }
+
+    @Override
+    public void delete(String bucket, String object) {
+        storage.delete(bucket, object);
+    }
+
+    @Override
+    public void copy(String sourceBucket, String sourceObject, String targetBucket, String targetObject) {
+        storage.copy(Storage.CopyRequest.newBuilder().setSource(BlobId.of(sourceBucket, sourceObject)).setTarget(BlobId.of(targetBucket, targetObject)).build());
+    }
+
+    @Override
+    public void rename(String bucket, String oldObject, String newObject) {
+        if (exists(bucket, oldObject)) {
+            copy(bucket, oldObject, bucket, newObject);
+            delete(bucket, oldObject);
+        }
+    }
+
+    @Override
+    public void deletePrefix(String bucket, String prefix) {
+        if (!prefix.endsWith("/")) prefix += "/";
+        Iterable<Blob> blobs = storage.list(bucket, BlobListOption.prefix(prefix)).iterateAll();
+        List<BlobId> toDelete = new ArrayList<>();
+        for (Blob blob : blobs) {
+            toDelete.add(blob.getBlobId());
+        }
+        if (!toDelete.isEmpty()) {
+            storage.delete(toDelete);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.example.backend.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Buckets as directories under storage.local.root, for air-gapped clinics and runs without GCS. Writes go to a temp
+ * file in the target directory and are renamed into place atomically, and copies use FileChannel.transferTo.
+ * Signed URLs point at LocalObjectController and carry an HMAC over path, expiry and download name.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+public class LocalObjectStore implements ObjectStore {
+
+    public static final String URL_PREFIX = "/storage/local/";
+
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+    private static final String SIGNING_KEY_LABEL = "petwell/local-object-store/url-signing/v1";
+
+    private final Path root;
+    private final String publicUrl;
+    private final SecretKeySpec signingKey;
+
+    public LocalObjectStore(@Value("${storage.local.root:./storage-data}") String root,
+                            @Value("${storage.local.public-url:http://localhost:8080}") String publicUrl,
+                            @Value("${storage.local.signing-key:}") String signingKey,
+                            @Value("${jwt.secret}") String jwtSecret) throws IOException {
+        this.root = Files.createDirectories(Path.of(root)).toRealPath();
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+        /* Never the JWT secret itself: without a key of its own, one is derived from it for this purpose only */
+        byte[] key = signingKey.isEmpty()
+                ? hkdfSha256(jwtSecret.getBytes(StandardCharsets.UTF_8), SIGNING_KEY_LABEL)
+                : signingKey.getBytes(StandardCharsets.UTF_8);
+        this.signingKey = new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    @Override
+    public boolean exists(String bucket, String object) {
+        Path path = resolve(bucket, object);
+        return object.endsWith("/") ? Files.isDirectory(path) : Files.isRegularFile(path);
+    }
+
+    @Override
+    public String signedUrl(String bucket, String object, Duration validity, String downloadName) {
+        long expires = Instant.now().plus(validity).getEpochSecond();
+        String path = bucket + "/" + object;
+        String url = publicUrl + URL_PREFIX + UriUtils.encodePath(path, StandardCharsets.UTF_8) + "?expires=" + expires;
+        if (downloadName != null) {
+            url += "&filename=" + UriUtils.encodeQueryParam(downloadName, StandardCharsets.UTF_8);
+        }
+        return url + "&signature=" + sign(path, expires, downloadName);
+    }
+
+    /* Checks a URL produced by signedUrl; path is "bucket/object" as decoded from the request */
+    public boolean verify(String path, long expires, String downloadName, String signature) {
+        if (signature == null || expires < Instant.now().getEpochSecond()) return false;
+        return MessageDigest.isEqual(sign(path, expires, downloadName).getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public StoredObject upload(String bucket, String object, InputStream content, String contentType) throws IOException {
+        Path target = resolve(bucket, object);
+        if (Files.exists(target)) {
+            throw new IllegalStateException("Object already exists: " + object);
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            StoredObject stored;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                stored = ChecksummingCopy.copy(object, content, channel, COPY_BUFFER_SIZE);
+                channel.force(true);
+            }
+            moveIntoPlace(temp, target);
+            return stored;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /* The object as a file resource, which Spring MVC serves with a Content-Length and answers Range requests from */
+    public Resource resource(String bucket, String object) {
+        return new FileSystemResource(resolve(bucket, object));
+    }
+
+    @Override
+    public void createFolder(String bucket, String folderPath) {
+        try {
+            Files.createDirectories(resolve(bucket, folderPath));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void delete(String bucket, String object) {
+        try {
+            Files.deleteIfExists(resolve(bucket, object));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void copy(String sourceBucket, String sourceObject, String targetBucket, String targetObject) {
+        Path source = resolve(sourceBucket, sourceObject);
+        Path target = resolve(targetBucket, targetObject);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".copy-", ".tmp");
+            try {
+                try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                     FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    long size = in.size();
+                    for (long position = 0; position < size; ) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                    out.force(true);
+                }
+                moveIntoPlace(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void rename(String bucket, String oldObject, String newObject) {
+        Path source = resolve(bucket, oldObject);
+        if (!Files.exists(source)) return;
+        try {
+            Path target = resolve(bucket, newObject);
+            Files.createDirectories(target.getParent());
+            moveIntoPlace(source, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void deletePrefix(String bucket, String prefix) {
+        Path folder = resolve(bucket, prefix);
+        if (!Files.isDirectory(folder)) return;
+        try (Stream<Path> paths = Files.walk(folder)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path resolve(String bucket, String object) {
+        Path bucketRoot = root.resolve(bucket).normalize();
+        Path path = bucketRoot.resolve(object).normalize();
+        if (!bucketRoot.startsWith(root) || bucketRoot.equals(root) || !path.startsWith(bucketRoot)) {
+            throw new IllegalArgumentException("Object name escapes the storage root: " + bucket + "/" + object);
+        }
+        return path;
+    }
+
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /* RFC 5869 with an all-zero salt and a single 32-byte output block */
+    private static byte[] hkdfSha256(byte[] inputKey, String label) {
+        try {
+            Mac extract = Mac.getInstance("HmacSHA256");
+            extract.init(new SecretKeySpec(new byte[32], "HmacSHA256"));
+            byte[] pseudoRandomKey = extract.doFinal(inputKey);
+
+            Mac expand = Mac.getInstance("HmacSHA256");
+            expand.init(new SecretKeySpec(pseudoRandomKey, "HmacSHA256"));
+            expand.update(label.getBytes(StandardCharsets.UTF_8));
+            expand.update((byte) 1);
+            return expand.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private String sign(String path, long expires, String downloadName) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey);
+            String signed = path + "\n" + expires + (downloadName != null ? "\n" + downloadName : "");
+            byte[] digest = mac.doFinal(signed.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
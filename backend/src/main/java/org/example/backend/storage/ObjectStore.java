@@ -0,0 +1,34 @@
+package org.example.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+/**
+ * The object operations the application needs from a bucket store. Object names use "/" as the folder separator;
+ * a name ending in "/" is a folder marker. Selected with storage.backend (gcs by default, or local).
+ */
+public interface ObjectStore {
+
+    boolean exists(String bucket, String object);
+
+    /*
+     * A time-limited URL a browser can GET the object from without credentials. With a downloadName the response
+     * is sent as an attachment under that name; null leaves the name to the object.
+     */
+    String signedUrl(String bucket, String object, Duration validity, String downloadName);
+
+    /* Fails if the object already exists */
+    StoredObject upload(String bucket, String object, InputStream content, String contentType) throws IOException;
+
+    void createFolder(String bucket, String folderPath);
+
+    void delete(String bucket, String object);
+
+    /* Overwrites the target if it exists */
+    void copy(String sourceBucket, String sourceObject, String targetBucket, String targetObject);
+
+    void rename(String bucket, String oldObject, String newObject);
+
+    void deletePrefix(String bucket, String prefix);
+}
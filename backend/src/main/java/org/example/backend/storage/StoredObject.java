@@ -0,0 +1,5 @@
+package org.example.backend.storage;
+
+/* What a streaming upload wrote: the object name, its length and the SHA-256 computed while it was sent */
+public record StoredObject(String name, long size, String sha256) {
+}
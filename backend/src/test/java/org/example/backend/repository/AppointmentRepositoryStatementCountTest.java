@@ -0,0 +1,136 @@
+package org.example.backend.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.backend.data.Appointment;
+import org.example.backend.data.Pet;
+import org.example.backend.data.User;
+import org.example.backend.data.Vet;
+import org.example.backend.data.VeterinaryClinic;
+import org.example.backend.dto.AppointmentDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/* A month of a busy clinic's calendar must load in a constant number of statements, not one more per owner */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class AppointmentRepositoryStatementCountTest {
+
+    private static final int APPOINTMENTS = 200;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private AppointmentRepository repo;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final OffsetDateTime monthStart = OffsetDateTime.of(2025, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private final OffsetDateTime monthEnd = monthStart.plusMonths(1).minusNanos(1);
+    private UUID clinicId;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        VeterinaryClinic clinic = em.persist(VeterinaryClinic.builder()
+                .name("Busy Clinic")
+                .address("1 Main Street")
+                .city("Bucharest")
+                .latitude(new BigDecimal("44.426800"))
+                .longitude(new BigDecimal("26.102500"))
+                .build());
+        Vet vet = em.persist(Vet.builder()
+                .fullName("Dr. Busy")
+                .email("busy-vet@example.org")
+                .specialities("general")
+                .password("unused")
+                .isActive(true)
+                .build());
+
+        /* Every appointment has its own owner, so any lazy owner load shows up as one statement per row */
+        for (int i = 0; i < APPOINTMENTS; i++) {
+            User owner = new User();
+            owner.setFullName("Owner " + i);
+            owner.setEmail("owner" + i + "@example.org");
+            owner.setPassword("unused");
+            owner.setRole("OWNER");
+            owner.setBirthdate(LocalDate.of(1990, 1, 1));
+            owner.setPhone("0700" + i);
+            em.persist(owner);
+
+            Pet pet = new Pet();
+            pet.setName("Pet " + i);
+            pet.setSpecies("dog");
+            pet.setOwner(owner);
+            em.persist(pet);
+
+            em.persist(Appointment.builder()
+                    .pet(pet)
+                    .vet(vet)
+                    .clinic(clinic)
+                    .appointmentDate(monthStart.plusHours(3L * i))
+                    .status(Appointment.Status.CONFIRMED)
+                    .type("CHECKUP")
+                    .build());
+        }
+        em.flush();
+        em.clear();
+
+        clinicId = clinic.getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void clinicMonthIsOneStatement() {
+        List<AppointmentDTO> calendar = repo.findClinicCalendar(clinicId, monthStart, monthEnd);
+
+        assertThat(calendar).hasSize(APPOINTMENTS);
+        assertThat(calendar).allSatisfy(dto -> {
+            assertThat(dto.petOwnerName()).startsWith("Owner ");
+            assertThat(dto.petOwnerPhone()).startsWith("0700");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pastAppointmentPageIsThreeStatementsWhateverItsSize() {
+        Page<UUID> ids = repo.searchPastAppointmentIds(clinicId, monthStart, monthEnd, null, null, PageRequest.of(0, 100));
+        List<AppointmentDTO> page = repo.findDtosByIds(ids.getContent());
+
+        assertThat(ids.getTotalElements()).isEqualTo(APPOINTMENTS);
+        assertThat(page).hasSize(100).allSatisfy(dto -> assertThat(dto.petOwnerName()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
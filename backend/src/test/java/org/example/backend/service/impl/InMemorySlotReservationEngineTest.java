@@ -0,0 +1,188 @@
+package org.example.backend.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.data.AppointmentLock;
+import org.example.backend.repository.VetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemorySlotReservationEngineTest {
+
+    private static final int THREADS = 64;
+
+    private final UUID vetId = UUID.randomUUID();
+    private final OffsetDateTime slot = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1).withNano(0);
+
+    private SimpleMeterRegistry meterRegistry;
+    private InMemorySlotReservationEngine engine;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        VetRepository vetRepository = mock(VetRepository.class);
+        when(vetRepository.existsById(any())).thenReturn(true);
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new InMemorySlotReservationEngine(vetRepository, meterRegistry);
+        pool = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void concurrentReservationsOfOneSlotHaveExactlyOneWinner() throws Exception {
+        List<AppointmentLock> winners = race(THREADS, i -> engine.reserve(vetId, slot, UUID.randomUUID(), 30, inMinutes(10)));
+
+        assertThat(winners).hasSize(1);
+        assertThat(engine.find(vetId, slot)).contains(winners.get(0));
+    }
+
+    @Test
+    void expiredReservationIsTakenOverByExactlyOneContender() throws Exception {
+        UUID staleUser = UUID.randomUUID();
+        engine.reserve(vetId, slot, staleUser, 30, inMinutes(-1));
+
+        List<AppointmentLock> winners = race(THREADS, i -> engine.reserve(vetId, slot, UUID.randomUUID(), 30, inMinutes(10)));
+
+        assertThat(winners).hasSize(1);
+        assertThat(engine.find(vetId, slot)).contains(winners.get(0));
+        assertThat(engine.findByUser(staleUser)).isEmpty();
+    }
+
+    @Test
+    void releaseRacingAReservationNeverLeavesTheReleasedLockBehind() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            OffsetDateTime at = slot.plusMinutes(round * 30L);
+            UUID holder = UUID.randomUUID();
+            UUID contender = UUID.randomUUID();
+            AppointmentLock held = engine.reserve(vetId, at, holder, 30, inMinutes(10));
+
+            List<AppointmentLock> reserved = race(2, i -> {
+                if (i == 0) {
+                    engine.release(held.getId(), holder);
+                    return null;
+                }
+                return engine.reserve(vetId, at, contender, 30, inMinutes(10));
+            });
+
+            assertThat(engine.findByUser(holder)).isEmpty();
+            if (reserved.isEmpty()) {
+                assertThat(engine.find(vetId, at)).isEmpty();
+            } else {
+                assertThat(engine.find(vetId, at)).contains(reserved.get(0));
+                assertThat(engine.findByUser(contender)).contains(reserved.get(0));
+            }
+        }
+    }
+
+    @Test
+    void aUserReservingManySlotsAtOnceEndsUpHoldingOne() throws Exception {
+        UUID user = UUID.randomUUID();
+
+        race(THREADS, i -> engine.reserve(vetId, slot.plusMinutes(i * 30L), user, 30, inMinutes(10)));
+
+        assertThat(engine.activeSlots(vetId, slot, slot.plusDays(2))).hasSize(1);
+        assertThat(engine.findByUser(user)).isPresent();
+    }
+
+    @Test
+    void theTimerWheelEvictsLapsedReservations() throws Exception {
+        engine.reserve(vetId, slot, UUID.randomUUID(), 30, OffsetDateTime.now().plusNanos(200_000_000));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (engine.find(vetId, slot).isPresent() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            engine.advanceWheel();
+        }
+
+        assertThat(engine.find(vetId, slot)).isEmpty();
+        assertThat(meterRegistry.counter("appointment.locks.evicted", "engine", "memory").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void completeKeepsTheSlotReservedUntilTheBookingCommits() {
+        AppointmentLock lock = engine.reserve(vetId, slot, UUID.randomUUID(), 30, inMinutes(10));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.complete(lock);
+            assertThat(engine.find(vetId, slot)).contains(lock);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(engine.find(vetId, slot)).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void completeOfARolledBackBookingLeavesTheLockToExpire() {
+        AppointmentLock lock = engine.reserve(vetId, slot, UUID.randomUUID(), 30, inMinutes(10));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.complete(lock);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            assertThat(engine.find(vetId, slot)).contains(lock);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /* Starts all tasks together and returns the non-null results of the ones that did not lose the slot */
+    private List<AppointmentLock> race(int tasks, IndexedTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AppointmentLock>> futures = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            Callable<AppointmentLock> call = () -> {
+                start.await();
+                try {
+                    return task.run(index);
+                } catch (DataIntegrityViolationException lost) {
+                    return null;
+                }
+            };
+            futures.add(pool.submit(call));
+        }
+        start.countDown();
+        List<AppointmentLock> results = new ArrayList<>();
+        for (Future<AppointmentLock> future : futures) {
+            AppointmentLock result = future.get(10, TimeUnit.SECONDS);
+            if (result != null) results.add(result);
+        }
+        return results;
+    }
+
+    private static OffsetDateTime inMinutes(long minutes) {
+        return OffsetDateTime.now().plusMinutes(minutes);
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        AppointmentLock run(int index);
+    }
+}
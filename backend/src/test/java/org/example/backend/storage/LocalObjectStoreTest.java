@@ -0,0 +1,173 @@
+package org.example.backend.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.cache.SignedUrlCache;
+import org.example.backend.googleApi.CloudStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/* The streaming upload path end to end, with the local filesystem standing in for GCS */
+class LocalObjectStoreTest {
+
+    private static final String BUCKET = "records";
+    private static final int COPY_BUFFER_SIZE = 256 * 1024;
+
+    @TempDir
+    Path root;
+
+    private LocalObjectStore store;
+    private CloudStorageService storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new LocalObjectStore(root.toString(), "http://localhost:8080", "test-signing-key", "test-jwt-secret");
+        storage = new CloudStorageService(store, new SignedUrlCache(new SimpleMeterRegistry(), 100, 300));
+    }
+
+    @Test
+    void largeUploadIsStreamedInBoundedChunksAndHashedOnTheWay() throws IOException {
+        long size = 40L * 1024 * 1024 + 17;
+        GeneratedStream content = new GeneratedStream(size, 42);
+
+        StoredObject stored = storage.uploadObjectFromStream(BUCKET, "blobs/scan.dcm", content, "application/dicom");
+
+        assertThat(stored.size()).isEqualTo(size);
+        assertThat(stored.sha256()).isEqualTo(ContentHash.sha256(new GeneratedStream(size, 42)).sha256());
+        assertThat(content.largestRead).isLessThanOrEqualTo(COPY_BUFFER_SIZE);
+        assertThat(Files.size(root.resolve(BUCKET).resolve("blobs/scan.dcm"))).isEqualTo(size);
+        assertThat(storage.blobExists(BUCKET, "blobs/scan.dcm")).isTrue();
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void uploadRefusesToOverwriteAnExistingObject() throws IOException {
+        storage.uploadObjectFromStream(BUCKET, "a.pdf", text("first"), "application/pdf");
+
+        assertThatThrownBy(() -> storage.uploadObjectFromStream(BUCKET, "a.pdf", text("second"), "application/pdf"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(Files.readString(root.resolve(BUCKET).resolve("a.pdf"))).isEqualTo("first");
+    }
+
+    @Test
+    void aFailedUploadLeavesNeitherTheObjectNorATemporaryFile() {
+        InputStream failing = new GeneratedStream(10L * 1024 * 1024, 7) {
+            @Override
+            public int read(byte[] target, int offset, int length) throws IOException {
+                if (position() > 3L * 1024 * 1024) throw new IOException("client went away");
+                return super.read(target, offset, length);
+            }
+        };
+
+        assertThatThrownBy(() -> storage.uploadObjectFromStream(BUCKET, "broken.pdf", failing, "application/pdf"))
+                .isInstanceOf(IOException.class);
+        assertThat(storage.blobExists(BUCKET, "broken.pdf")).isFalse();
+        assertThat(temporaryFiles()).isEmpty();
+    }
+
+    @Test
+    void signedUrlsVerifyOnlyForTheirOwnPathAndName() throws IOException {
+        storage.uploadObjectFromStream(BUCKET, "blobs/ab/abcdef", text("x-ray"), "application/pdf");
+
+        URI url = URI.create(storage.generateSignedUrl(BUCKET, "blobs/ab/abcdef", 60, "x-ray.pdf"));
+        long expires = Long.parseLong(queryParam(url, "expires"));
+        String signature = queryParam(url, "signature");
+
+        assertThat(url.getPath()).isEqualTo(LocalObjectStore.URL_PREFIX + BUCKET + "/blobs/ab/abcdef");
+        assertThat(store.verify(BUCKET + "/blobs/ab/abcdef", expires, "x-ray.pdf", signature)).isTrue();
+        assertThat(store.verify(BUCKET + "/blobs/ab/other", expires, "x-ray.pdf", signature)).isFalse();
+        assertThat(store.verify(BUCKET + "/blobs/ab/abcdef", expires, "renamed.exe", signature)).isFalse();
+        assertThat(store.verify(BUCKET + "/blobs/ab/abcdef", expires + 60, "x-ray.pdf", signature)).isFalse();
+    }
+
+    @Test
+    void withoutItsOwnKeyTheStoreSignsWithAKeyDerivedFromButNotEqualToTheJwtSecret() throws IOException {
+        LocalObjectStore derived = new LocalObjectStore(root.toString(), "http://localhost:8080", "", "test-jwt-secret");
+        LocalObjectStore keyedWithJwtSecret = new LocalObjectStore(root.toString(), "http://localhost:8080", "test-jwt-secret", "unused");
+
+        URI url = URI.create(derived.signedUrl(BUCKET, "a.pdf", Duration.ofMinutes(5), null));
+        long expires = Long.parseLong(queryParam(url, "expires"));
+        String signature = queryParam(url, "signature");
+
+        assertThat(derived.verify(BUCKET + "/a.pdf", expires, null, signature)).isTrue();
+        assertThat(keyedWithJwtSecret.verify(BUCKET + "/a.pdf", expires, null, signature)).isFalse();
+    }
+
+    @Test
+    void objectNamesCannotEscapeTheBucket() {
+        assertThatThrownBy(() -> storage.uploadObjectFromStream(BUCKET, "../other/x", text("x"), "text/plain"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> storage.blobExists("..", "etc/passwd"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<Path> temporaryFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".tmp")).toList();
+        }
+    }
+
+    private static InputStream text(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String queryParam(URI url, String name) {
+        for (String pair : url.getRawQuery().split("&")) {
+            if (pair.startsWith(name + "=")) return pair.substring(name.length() + 1);
+        }
+        throw new AssertionError("No " + name + " in " + url);
+    }
+
+    /* Deterministic pseudo-random bytes of any length without holding them in memory; remembers the largest read */
+    private static class GeneratedStream extends InputStream {
+
+        private final long size;
+        private long state;
+        private long position;
+        int largestRead;
+
+        GeneratedStream(long size, long seed) {
+            this.size = size;
+            this.state = seed;
+        }
+
+        long position() {
+            return position;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            largestRead = Math.max(largestRead, length);
+            if (position >= size) return -1;
+            int count = (int) Math.min(length, size - position);
+            for (int i = 0; i < count; i++) {
+                state ^= state << 13;
+                state ^= state >>> 7;
+                state ^= state << 17;
+                target[offset + i] = (byte) state;
+            }
+            position += count;
+            return count;
+        }
+    }
+}